@@ -0,0 +1,27 @@
+package com.shanebeestudios.nms.api.benchmark;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+
+/**
+ * Boots the vanilla built-in registries without a running server
+ * <p>Only API methods which don't need a server (or a level) can be benchmarked this way.</p>
+ */
+public final class BenchmarkBootstrap {
+
+    private BenchmarkBootstrap() {
+    }
+
+    private static boolean bootstrapped = false;
+
+    /**
+     * Bootstrap Minecraft, this is only done once per JVM
+     */
+    public static synchronized void bootstrap() {
+        if (bootstrapped) return;
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        bootstrapped = true;
+    }
+
+}
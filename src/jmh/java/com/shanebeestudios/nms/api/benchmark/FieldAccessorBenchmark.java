@@ -0,0 +1,69 @@
+package com.shanebeestudios.nms.api.benchmark;
+
+import com.shanebeestudios.nms.api.util.FieldAccessor;
+import com.shanebeestudios.nms.api.util.ReflectionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for reflective field reads
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FieldAccessorBenchmark {
+
+    private static final FieldAccessor<String> ACCESSOR = FieldAccessor.of(Target.class, "value", String.class);
+    private static final VarHandle VAR_HANDLE = ACCESSOR.getVarHandle();
+
+    private final Target target = new Target();
+    private Field field;
+
+    @Setup
+    public void setup() throws NoSuchFieldException {
+        this.field = Target.class.getDeclaredField("value");
+        this.field.setAccessible(true);
+    }
+
+    @Benchmark
+    public Object reflectionUtils() {
+        return ReflectionUtils.getField("value", Target.class, this.target);
+    }
+
+    @Benchmark
+    public Object cachedField() throws IllegalAccessException {
+        return this.field.get(this.target);
+    }
+
+    @Benchmark
+    public String fieldAccessor() {
+        return ACCESSOR.get(this.target);
+    }
+
+    @Benchmark
+    public String varHandle() {
+        return (String) VAR_HANDLE.get(this.target);
+    }
+
+    @Benchmark
+    public String fieldAccessorLookup() {
+        return FieldAccessor.of(Target.class, "value", String.class).get(this.target);
+    }
+
+    private static final class Target {
+
+        @SuppressWarnings("FieldMayBeFinal")
+        private String value = "value";
+
+    }
+
+}
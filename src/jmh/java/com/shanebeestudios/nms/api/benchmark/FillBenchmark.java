@@ -0,0 +1,74 @@
+package com.shanebeestudios.nms.api.benchmark;
+
+import com.shanebeestudios.nms.api.world.edit.BlockWriter;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the section writes behind block fills
+ * <p>{@link com.shanebeestudios.nms.api.world.WorldApi#fillBlocks} itself needs a level, and so a running server.
+ * This benchmarks filling a whole section the way {@link BlockWriter} writes blocks (unlocked),
+ * against the way a regular block set does (locked).
+ * Each invocation alternates the fill state, so every block changes.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FillBenchmark {
+
+    private PalettedContainer<BlockState> states;
+    private BlockState stone;
+    private BlockState dirt;
+    private boolean flip;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.bootstrap();
+        this.stone = Blocks.STONE.defaultBlockState();
+        this.dirt = Blocks.DIRT.defaultBlockState();
+        this.states = new PalettedContainer<>(Block.BLOCK_STATE_REGISTRY, Blocks.AIR.defaultBlockState(), PalettedContainer.Strategy.SECTION_STATES);
+    }
+
+    @Benchmark
+    public PalettedContainer<BlockState> fillSectionUnlocked() {
+        BlockState state = next();
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    this.states.getAndSetUnchecked(x, y, z, state);
+                }
+            }
+        }
+        return this.states;
+    }
+
+    @Benchmark
+    public PalettedContainer<BlockState> fillSectionLocked() {
+        BlockState state = next();
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    this.states.getAndSet(x, y, z, state);
+                }
+            }
+        }
+        return this.states;
+    }
+
+    private BlockState next() {
+        this.flip = !this.flip;
+        return this.flip ? this.stone : this.dirt;
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.shanebeestudios.nms.api.benchmark;
+
+import com.shanebeestudios.nms.api.world.item.ItemApi;
+import com.shanebeestudios.nms.api.world.item.McItemStack;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.bukkit.craftbukkit.inventory.CraftItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for item conversions in {@link ItemApi}
+ * <p>Bukkit ItemStacks are created as CraftItemStacks, plain Bukkit ItemStacks need a running server.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemApiBenchmark {
+
+    private org.bukkit.inventory.ItemStack bukkitItemStack;
+    private ItemStack itemStack;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.bootstrap();
+        this.itemStack = new ItemStack(Items.DIAMOND_SWORD);
+        this.bukkitItemStack = CraftItemStack.asCraftMirror(this.itemStack.copy());
+    }
+
+    @Benchmark
+    public ItemStack getNMSItemStack() {
+        return ItemApi.getNMSItemStack(this.bukkitItemStack);
+    }
+
+    @Benchmark
+    public ItemStack getNMSItemStackCopy() {
+        return ItemApi.getNMSItemStackCopy(this.bukkitItemStack);
+    }
+
+    @Benchmark
+    public Item getItem() {
+        return ItemApi.getItem(this.itemStack);
+    }
+
+    @Benchmark
+    public McItemStack getWrappedItemStack() {
+        return ItemApi.getWrappedItemStack(this.bukkitItemStack);
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.shanebeestudios.nms.api.benchmark;
+
+import com.shanebeestudios.nms.api.util.McUtils;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import org.bukkit.NamespacedKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for key conversions and registry key lists in {@link McUtils}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class McUtilsBenchmark {
+
+    private ResourceLocation[] resourceLocations;
+    private NamespacedKey[] namespacedKeys;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.bootstrap();
+        this.resourceLocations = BuiltInRegistries.ITEM.keySet().toArray(new ResourceLocation[0]);
+        this.namespacedKeys = new NamespacedKey[this.resourceLocations.length];
+        for (int i = 0; i < this.resourceLocations.length; i++) {
+            ResourceLocation location = this.resourceLocations[i];
+            this.namespacedKeys[i] = new NamespacedKey(location.getNamespace(), location.getPath());
+        }
+    }
+
+    @Benchmark
+    public void getNamespacedKey(Blackhole blackhole) {
+        for (ResourceLocation location : this.resourceLocations) {
+            blackhole.consume(McUtils.getNamespacedKey(location));
+        }
+    }
+
+    @Benchmark
+    public void getNamespacedKeyUncached(Blackhole blackhole) {
+        for (ResourceLocation location : this.resourceLocations) {
+            blackhole.consume(new NamespacedKey(location.getNamespace(), location.getPath()));
+        }
+    }
+
+    @Benchmark
+    public void getResourceLocation(Blackhole blackhole) {
+        for (NamespacedKey key : this.namespacedKeys) {
+            blackhole.consume(McUtils.getResourceLocation(key));
+        }
+    }
+
+    @Benchmark
+    public void getResourceLocationUncached(Blackhole blackhole) {
+        for (NamespacedKey key : this.namespacedKeys) {
+            blackhole.consume(ResourceLocation.fromNamespaceAndPath(key.getNamespace(), key.getKey()));
+        }
+    }
+
+    @Benchmark
+    public List<NamespacedKey> getRegistryKeys() {
+        return McUtils.getRegistryKeys(BuiltInRegistries.ITEM);
+    }
+
+    @Benchmark
+    public List<NamespacedKey> getRegistryKeysPrefix() {
+        return McUtils.getRegistryKeys(BuiltInRegistries.ITEM, "diamond");
+    }
+
+    @Benchmark
+    public List<NamespacedKey> getRegistryKeysPrefixScan() {
+        // What completion did before prefix search
+        return McUtils.getRegistryKeys(BuiltInRegistries.ITEM).stream()
+            .filter(key -> key.getKey().startsWith("diamond") || key.toString().startsWith("diamond"))
+            .toList();
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.shanebeestudios.nms.api.benchmark;
+
+import com.shanebeestudios.nms.api.world.entity.MovementBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for interpolating many NPCs along looping paths
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MovementBufferBenchmark {
+
+    @Param({"1000", "5000", "20000"})
+    private int npcs;
+
+    private MovementBuffer buffer;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        this.buffer = new MovementBuffer(this.npcs);
+        for (int i = 0; i < this.npcs; i++) {
+            double x = random.nextDouble(-500, 500);
+            double z = random.nextDouble(-500, 500);
+            int slot = this.buffer.add(x, 64, z, 0, 0);
+            // Square patrol route around the spawn point
+            double[] path = {
+                x + 10, 64, z,
+                x + 10, 64, z + 10,
+                x, 64, z + 10,
+                x, 64, z
+            };
+            this.buffer.setPath(slot, path, random.nextDouble(0.1, 0.4), true);
+        }
+    }
+
+    @Benchmark
+    public MovementBuffer tick() {
+        this.buffer.tick();
+        return this.buffer;
+    }
+
+}
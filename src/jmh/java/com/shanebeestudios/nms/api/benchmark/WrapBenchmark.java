@@ -0,0 +1,61 @@
+package com.shanebeestudios.nms.api.benchmark;
+
+import com.shanebeestudios.nms.api.world.block.McBlockState;
+import com.shanebeestudios.nms.api.world.item.McItem;
+import com.shanebeestudios.nms.api.world.item.McItemStack;
+import net.kyori.adventure.text.Component;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the wrap factories and item tooltips
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WrapBenchmark {
+
+    private BlockState blockState;
+    private ItemStack itemStack;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.bootstrap();
+        this.blockState = Blocks.OAK_STAIRS.defaultBlockState();
+        this.itemStack = new ItemStack(Items.DIAMOND_SWORD);
+    }
+
+    @Benchmark
+    public McBlockState wrapBlockState() {
+        return McBlockState.wrap(this.blockState);
+    }
+
+    @Benchmark
+    public McItem wrapItem() {
+        return McItem.wrap(Items.DIAMOND_SWORD);
+    }
+
+    @Benchmark
+    public McItemStack wrapItemStack() {
+        return McItemStack.wrap(this.itemStack);
+    }
+
+    @Benchmark
+    public List<Component> getTooltipLines() {
+        // Without a player, tooltips use an empty context
+        return McItemStack.wrap(this.itemStack).getTooltipLines(null, false);
+    }
+
+}
@@ -0,0 +1,300 @@
+package com.shanebeestudios.nms.api.server;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in instrumentation of Api entry points
+ * <p>Records call counts, latency histograms, allocated bytes and blocks/chunks touched per entry point.
+ * Enable by starting the server with {@code -Dnmsapi.metrics=true}.
+ * When disabled, {@link #start()} returns null and recording does nothing,
+ * which the JIT removes entirely.</p>
+ * <p>Readings are available from {@link McServer#getApiMetrics()}.</p>
+ */
+@SuppressWarnings("unused")
+public class ApiMetrics {
+
+    private ApiMetrics() {
+    }
+
+    /**
+     * Whether metrics are enabled
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("nmsapi.metrics");
+
+    private static final int BUCKETS = 64;
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = getThreadBean();
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    /**
+     * Start sampling a call
+     *
+     * @return Sample to pass to {@link #record(String, Sample)}, null if metrics are disabled
+     */
+    @Nullable
+    public static Sample start() {
+        if (!ENABLED) return null;
+        return new Sample(System.nanoTime(), getAllocatedBytes());
+    }
+
+    /**
+     * Record a call
+     *
+     * @param name   Name of entry point (ex: "WorldApi#fillBlocks")
+     * @param sample Sample from {@link #start()}
+     */
+    public static void record(@NotNull String name, @Nullable Sample sample) {
+        record(name, sample, 0, 0);
+    }
+
+    /**
+     * Record a call which touched blocks and/or chunks
+     *
+     * @param name   Name of entry point (ex: "WorldApi#fillBlocks")
+     * @param sample Sample from {@link #start()}
+     * @param blocks Amount of blocks touched
+     * @param chunks Amount of chunks touched
+     */
+    public static void record(@NotNull String name, @Nullable Sample sample, long blocks, long chunks) {
+        if (!ENABLED || sample == null) return;
+        long nanos = System.nanoTime() - sample.nanos;
+        long allocated = sample.allocated >= 0 ? getAllocatedBytes() - sample.allocated : 0;
+        ENTRIES.computeIfAbsent(name, Entry::new).record(nanos, allocated, blocks, chunks);
+    }
+
+    /**
+     * Get a snapshot of all recorded entry points
+     *
+     * @return Unmodifiable map of entry point name to stats, sorted by name
+     */
+    @NotNull
+    public static Map<String, Stats> getStats() {
+        Map<String, Stats> stats = new TreeMap<>();
+        ENTRIES.forEach((name, entry) -> stats.put(name, entry.snapshot()));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Clear all recorded metrics
+     */
+    public static void reset() {
+        ENTRIES.clear();
+    }
+
+    private static long getAllocatedBytes() {
+        return THREAD_BEAN != null ? THREAD_BEAN.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    @Nullable
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+        if (!ENABLED) return null;
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+
+    /**
+     * Start of a sampled call
+     */
+    public static final class Sample {
+
+        private final long nanos;
+        private final long allocated;
+
+        private Sample(long nanos, long allocated) {
+            this.nanos = nanos;
+            this.allocated = allocated;
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder blocks = new LongAdder();
+        private final LongAdder chunks = new LongAdder();
+        // Bucket i holds calls which took less than 2^(i+1) nanoseconds
+        private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+        private Entry(String name) {
+            this.name = name;
+            for (int i = 0; i < BUCKETS; i++) {
+                this.histogram[i] = new LongAdder();
+            }
+        }
+
+        private void record(long nanos, long allocated, long blocks, long chunks) {
+            this.calls.increment();
+            this.totalNanos.add(nanos);
+            this.maxNanos.accumulate(nanos);
+            this.allocatedBytes.add(allocated);
+            if (blocks != 0) this.blocks.add(blocks);
+            if (chunks != 0) this.chunks.add(chunks);
+            this.histogram[63 - Long.numberOfLeadingZeros(Math.max(1, nanos))].increment();
+        }
+
+        private Stats snapshot() {
+            long[] histogram = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                histogram[i] = this.histogram[i].sum();
+            }
+            return new Stats(this.name, this.calls.sum(), this.totalNanos.sum(), this.maxNanos.get(),
+                this.allocatedBytes.sum(), this.blocks.sum(), this.chunks.sum(), histogram);
+        }
+
+    }
+
+    /**
+     * Snapshot of the metrics of an entry point
+     */
+    public static final class Stats {
+
+        private final String name;
+        private final long calls;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long allocatedBytes;
+        private final long blocks;
+        private final long chunks;
+        private final long[] histogram;
+
+        private Stats(String name, long calls, long totalNanos, long maxNanos, long allocatedBytes, long blocks, long chunks, long[] histogram) {
+            this.name = name;
+            this.calls = calls;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.blocks = blocks;
+            this.chunks = chunks;
+            this.histogram = histogram;
+        }
+
+        /**
+         * Get the name of the entry point
+         *
+         * @return Name of entry point
+         */
+        @NotNull
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Get the amount of calls
+         *
+         * @return Amount of calls
+         */
+        public long getCalls() {
+            return this.calls;
+        }
+
+        /**
+         * Get the total time spent in calls
+         *
+         * @return Total time in nanoseconds
+         */
+        public long getTotalNanos() {
+            return this.totalNanos;
+        }
+
+        /**
+         * Get the mean time of a call
+         *
+         * @return Mean time in nanoseconds
+         */
+        public double getMeanNanos() {
+            return this.calls == 0 ? 0 : (double) this.totalNanos / this.calls;
+        }
+
+        /**
+         * Get the longest time of a call
+         *
+         * @return Max time in nanoseconds
+         */
+        public long getMaxNanos() {
+            return this.maxNanos;
+        }
+
+        /**
+         * Get an estimate of a percentile of call times
+         * <p>Times are recorded in power of 2 buckets,
+         * so this returns the upper bound of the bucket the percentile falls in.</p>
+         *
+         * @param percentile Percentile between 0 and 100
+         * @return Estimated percentile in nanoseconds
+         */
+        public long getPercentileNanos(double percentile) {
+            if (this.calls == 0) return 0;
+            long target = (long) Math.ceil(this.calls * (percentile / 100.0));
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                count += this.histogram[i];
+                if (count >= Math.max(1, target)) {
+                    return Math.min(this.maxNanos, i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1);
+                }
+            }
+            return this.maxNanos;
+        }
+
+        /**
+         * Get the total bytes allocated by calls on the calling thread
+         * <p>This is 0 if the JVM doesn't support measuring thread allocation.</p>
+         *
+         * @return Total allocated bytes
+         */
+        public long getAllocatedBytes() {
+            return this.allocatedBytes;
+        }
+
+        /**
+         * Get the total amount of blocks touched by calls
+         *
+         * @return Total blocks touched
+         */
+        public long getBlocks() {
+            return this.blocks;
+        }
+
+        /**
+         * Get the total amount of chunks touched by calls
+         *
+         * @return Total chunks touched
+         */
+        public long getChunks() {
+            return this.chunks;
+        }
+
+        /**
+         * Get the latency histogram
+         * <p>Index i holds the amount of calls which took between 2^i and 2^(i+1) nanoseconds.</p>
+         *
+         * @return Copy of histogram
+         */
+        public long[] getHistogram() {
+            return this.histogram.clone();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s{calls=%s,mean=%.3fms,p99=%.3fms,max=%.3fms,allocated=%s,blocks=%s,chunks=%s}",
+                this.name, this.calls, getMeanNanos() / 1_000_000.0, getPercentileNanos(99) / 1_000_000.0,
+                this.maxNanos / 1_000_000.0, this.allocatedBytes, this.blocks, this.chunks);
+        }
+
+    }
+
+}
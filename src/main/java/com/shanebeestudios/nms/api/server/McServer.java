@@ -10,6 +10,7 @@ import org.bukkit.Bukkit;
 import org.bukkit.Server;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Wrapper for Minecraft (Dedicated) Server
@@ -125,4 +126,28 @@ public class McServer {
         return (List<ServerLevel>) this.server.getAllLevels();
     }
 
+    /**
+     * Get the metrics of all Api entry points which were called
+     * <p>Metrics are only recorded when enabled, see {@link ApiMetrics} for more details.</p>
+     *
+     * @return Unmodifiable map of entry point name to stats, sorted by name
+     */
+    public Map<String, ApiMetrics.Stats> getApiMetrics() {
+        return ApiMetrics.getStats();
+    }
+
+    /**
+     * Get stats of server tick durations (MSPT) within a window
+     * <p>Tick durations are recorded from the first time this is called,
+     * see {@link TickTelemetry} for more details.
+     * This can be called from any thread.</p>
+     *
+     * @param window Window of time to get stats for
+     * @return Stats of ticks within window
+     */
+    public TickTelemetry.TickStats getTickStats(TickTelemetry.Window window) {
+        TickTelemetry.start();
+        return TickTelemetry.getStats(window);
+    }
+
 }
@@ -0,0 +1,112 @@
+package com.shanebeestudios.nms.api.server;
+
+import net.minecraft.server.MinecraftServer;
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Runs tasks on the main thread once per server tick
+ * <p>Tasks are run from a single tickable registered with the {@link MinecraftServer},
+ * so no plugin instance is required to schedule them.</p>
+ * <p>Each tick, tasks run in the order they were scheduled, followed by all {@link #addPostTask(Runnable) post tasks}.</p>
+ */
+@SuppressWarnings("unused")
+public class TickScheduler {
+
+    private TickScheduler() {
+    }
+
+    private static final Queue<TickTask> PENDING = new ConcurrentLinkedQueue<>();
+    private static final List<TickTask> TASKS = new ArrayList<>();
+    private static final List<Runnable> POST_TASKS = new CopyOnWriteArrayList<>();
+    private static final AtomicBoolean REGISTERED = new AtomicBoolean(false);
+
+    /**
+     * Schedule a task to run every tick until it is finished
+     * <p>Can be called from any thread, the task will start running on the next tick.</p>
+     *
+     * @param task Task to schedule
+     */
+    public static void schedule(@NotNull TickTask task) {
+        PENDING.add(task);
+        register();
+    }
+
+    /**
+     * Add a task which runs every tick after all scheduled tasks
+     * <p>Useful for work which needs to see everything tasks did during the tick,
+     * such as sending packets which were queued by them.
+     * Post tasks run in the order they were added, and can't be removed.</p>
+     * <p>Can be called from any thread.</p>
+     *
+     * @param task Task to run after all scheduled tasks
+     */
+    public static void addPostTask(@NotNull Runnable task) {
+        POST_TASKS.add(task);
+        register();
+    }
+
+    private static void register() {
+        if (REGISTERED.compareAndSet(false, true)) {
+            MinecraftServer server = MinecraftServer.getServer();
+            server.execute(() -> server.addTickable(TickScheduler::tick));
+        }
+    }
+
+    private static void tick() {
+        tickTasks();
+        for (Runnable task : POST_TASKS) {
+            try {
+                task.run();
+            } catch (Throwable throwable) {
+                Bukkit.getLogger().log(Level.SEVERE, "[NMS-API] Error while running post task " + task, throwable);
+            }
+        }
+    }
+
+    private static void tickTasks() {
+        TickTask pending;
+        while ((pending = PENDING.poll()) != null) {
+            TASKS.add(pending);
+        }
+        if (TASKS.isEmpty()) return;
+
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            TASKS.removeIf(task -> {
+                try {
+                    return task.tick();
+                } catch (Throwable throwable) {
+                    Bukkit.getLogger().log(Level.SEVERE, "[NMS-API] Error while ticking task " + task, throwable);
+                    return true;
+                }
+            });
+        } finally {
+            ApiMetrics.record("TickScheduler#tick", sample);
+        }
+    }
+
+    /**
+     * Represents a task which runs once per tick
+     */
+    @FunctionalInterface
+    public interface TickTask {
+
+        /**
+         * Run this task for the current tick
+         *
+         * @return True if this task is finished and should no longer be ticked
+         */
+        boolean tick();
+
+    }
+
+}
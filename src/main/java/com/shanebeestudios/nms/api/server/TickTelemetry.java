@@ -0,0 +1,206 @@
+package com.shanebeestudios.nms.api.server;
+
+import net.minecraft.server.MinecraftServer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records server tick durations into a ring buffer
+ * <p>Tick durations are read once per tick from the server, and written by the main thread only.
+ * Stats can be read from any thread without locking, such as from an async dashboard.</p>
+ * <p>Recording starts the first time this is {@link #start() started},
+ * which is automatically done by {@link McServer#getTickStats(Window)}.</p>
+ */
+@SuppressWarnings("unused")
+public class TickTelemetry {
+
+    private TickTelemetry() {
+    }
+
+    // 5 minutes at 20 ticks per second
+    private static final int CAPACITY = 6000;
+    private static final AtomicLongArray DURATIONS = new AtomicLongArray(CAPACITY);
+    private static final AtomicLongArray TIMESTAMPS = new AtomicLongArray(CAPACITY);
+    private static final AtomicBoolean STARTED = new AtomicBoolean(false);
+    // Only written by the main thread, volatile so readers see samples written before it
+    private static volatile long written = 0;
+    private static int lastTickCount = -1;
+
+    /**
+     * Start recording tick durations
+     * <p>Can be called from any thread, does nothing if already started.</p>
+     */
+    public static void start() {
+        if (!STARTED.compareAndSet(false, true)) return;
+        TickScheduler.schedule(() -> {
+            record(MinecraftServer.getServer());
+            return false;
+        });
+    }
+
+    private static void record(MinecraftServer server) {
+        // Tasks run during a tick, so the last finished tick is the previous one
+        int tickCount = server.getTickCount();
+        if (tickCount == lastTickCount || tickCount < 1) return;
+        lastTickCount = tickCount;
+
+        long[] tickTimes = server.getTickTimesNanos();
+        long duration = tickTimes[(tickCount - 1) % tickTimes.length];
+        int index = (int) (written % CAPACITY);
+        DURATIONS.lazySet(index, duration);
+        TIMESTAMPS.lazySet(index, System.nanoTime());
+        written = written + 1;
+    }
+
+    /**
+     * Get stats of ticks within a window
+     *
+     * @param window Window of time to get stats for
+     * @return Stats of ticks within window
+     */
+    @NotNull
+    public static TickStats getStats(@NotNull Window window) {
+        long end = written;
+        long now = System.nanoTime();
+        int available = (int) Math.min(end, CAPACITY);
+        long[] samples = new long[available];
+        int count = 0;
+        // Walk backwards from the newest sample until leaving the window
+        for (int i = 1; i <= available; i++) {
+            int index = (int) ((end - i) % CAPACITY);
+            if (now - TIMESTAMPS.get(index) > window.nanos) break;
+            samples[count++] = DURATIONS.get(index);
+        }
+        // Samples which were overwritten while reading belong to newer ticks, drop them
+        long overwritten = written - end;
+        if (overwritten > 0 && count > CAPACITY - overwritten) {
+            count = (int) Math.max(0, CAPACITY - overwritten);
+        }
+        return new TickStats(window, Arrays.copyOf(samples, count));
+    }
+
+    /**
+     * Window of time to get stats for
+     */
+    public enum Window {
+        FIVE_SECONDS(5, TimeUnit.SECONDS),
+        ONE_MINUTE(1, TimeUnit.MINUTES),
+        FIVE_MINUTES(5, TimeUnit.MINUTES);
+
+        private final long nanos;
+
+        Window(long duration, TimeUnit unit) {
+            this.nanos = unit.toNanos(duration);
+        }
+    }
+
+    /**
+     * Immutable stats of tick durations within a window
+     */
+    public static final class TickStats {
+
+        private final Window window;
+        private final long[] sorted;
+        private final double mean;
+
+        private TickStats(Window window, long[] samples) {
+            this.window = window;
+            Arrays.sort(samples);
+            this.sorted = samples;
+            long total = 0;
+            for (long sample : samples) {
+                total += sample;
+            }
+            this.mean = samples.length == 0 ? 0 : (double) total / samples.length / 1_000_000.0;
+        }
+
+        /**
+         * Get the window of these stats
+         *
+         * @return Window of stats
+         */
+        @NotNull
+        public Window getWindow() {
+            return this.window;
+        }
+
+        /**
+         * Get the amount of ticks within the window
+         *
+         * @return Amount of ticks
+         */
+        public int getTickCount() {
+            return this.sorted.length;
+        }
+
+        /**
+         * Get the mean milliseconds per tick
+         *
+         * @return Mean MSPT
+         */
+        public double getMean() {
+            return this.mean;
+        }
+
+        /**
+         * Get a percentile of milliseconds per tick
+         *
+         * @param percentile Percentile between 0 and 100
+         * @return MSPT at percentile
+         */
+        public double getPercentile(double percentile) {
+            if (this.sorted.length == 0) return 0;
+            int index = (int) Math.ceil(this.sorted.length * (percentile / 100.0)) - 1;
+            index = Math.max(0, Math.min(this.sorted.length - 1, index));
+            return this.sorted[index] / 1_000_000.0;
+        }
+
+        /**
+         * Get the median milliseconds per tick
+         *
+         * @return p50 MSPT
+         */
+        public double getP50() {
+            return getPercentile(50);
+        }
+
+        /**
+         * Get the 95th percentile of milliseconds per tick
+         *
+         * @return p95 MSPT
+         */
+        public double getP95() {
+            return getPercentile(95);
+        }
+
+        /**
+         * Get the 99th percentile of milliseconds per tick
+         *
+         * @return p99 MSPT
+         */
+        public double getP99() {
+            return getPercentile(99);
+        }
+
+        /**
+         * Get the longest tick within the window
+         *
+         * @return Max MSPT
+         */
+        public double getMax() {
+            return this.sorted.length == 0 ? 0 : this.sorted[this.sorted.length - 1] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("TickStats{window=%s,ticks=%s,mean=%.2f,p50=%.2f,p95=%.2f,p99=%.2f,max=%.2f}",
+                this.window, this.sorted.length, this.mean, getP50(), getP95(), getP99(), getMax());
+        }
+
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.shanebeestudios.nms.api.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Typed, cached accessor for a field
+ * <p>Accessors are resolved once per class and field name, and reused after that,
+ * which saves looking up the field and making it accessible on every call.
+ * Reads and writes go through a {@link VarHandle}, or a {@link MethodHandle} for writing final fields.</p>
+ * <p>The handles are held in instance fields and invoked with erased types, so the JIT can't constant fold them.
+ * Don't expect calls through an accessor to be faster than a cached {@link Field}.
+ * For hot paths, keep the handle of {@link #getVarHandle()} in a static final field instead.</p>
+ *
+ * @param <T> Type of field
+ */
+@SuppressWarnings("unused")
+public final class FieldAccessor<T> {
+
+    private static final Map<Key, FieldAccessor<?>> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Get an accessor for a field
+     *
+     * @param owner Class which declares the field
+     * @param name  Name of field
+     * @param type  Type of field, may be a super type of the actual type (primitives are boxed)
+     * @param <T>   Type of field
+     * @return Accessor for field
+     * @throws IllegalArgumentException if the field does not exist or doesn't match the type
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public static <T> FieldAccessor<T> of(@NotNull Class<?> owner, @NotNull String name, @NotNull Class<T> type) {
+        FieldAccessor<?> accessor = CACHE.computeIfAbsent(new Key(owner, name), key -> create(owner, name));
+        Class<?> fieldType = MethodType.methodType(accessor.type).wrap().returnType();
+        if (!type.isAssignableFrom(fieldType)) {
+            throw new IllegalArgumentException("Field '" + name + "' in " + owner.getName() + " is of type " + fieldType.getName() + ", not " + type.getName());
+        }
+        return (FieldAccessor<T>) accessor;
+    }
+
+    private static FieldAccessor<?> create(Class<?> owner, String name) {
+        try {
+            Field field = owner.getDeclaredField(name);
+            field.setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            VarHandle handle = lookup.unreflectVarHandle(field);
+            // VarHandles can't write final fields
+            MethodHandle finalSetter = null;
+            if (Modifier.isFinal(field.getModifiers()) && !Modifier.isStatic(field.getModifiers())) {
+                finalSetter = lookup.unreflectSetter(field);
+            }
+            return new FieldAccessor<>(field, handle, finalSetter);
+        } catch (NoSuchFieldException | IllegalAccessException ex) {
+            throw new IllegalArgumentException("Unable to access field '" + name + "' in " + owner.getName(), ex);
+        }
+    }
+
+    private final Field field;
+    private final Class<?> type;
+    private final boolean isStatic;
+    private final boolean isFinal;
+    private final VarHandle handle;
+    private final MethodHandle finalSetter;
+
+    private FieldAccessor(Field field, VarHandle handle, @Nullable MethodHandle finalSetter) {
+        this.field = field;
+        this.type = field.getType();
+        this.isStatic = Modifier.isStatic(field.getModifiers());
+        this.isFinal = Modifier.isFinal(field.getModifiers());
+        this.handle = handle;
+        this.finalSetter = finalSetter;
+    }
+
+    /**
+     * Get the value of this field
+     *
+     * @param object Object which holds the field (ignored for static fields)
+     * @return Value of field
+     */
+    @SuppressWarnings("unchecked")
+    public T get(@Nullable Object object) {
+        return (T) (this.isStatic ? this.handle.get() : this.handle.get(object));
+    }
+
+    /**
+     * Set the value of this field
+     *
+     * @param object Object which holds the field (ignored for static fields)
+     * @param value  Value to set
+     * @throws UnsupportedOperationException if the field is static and final
+     */
+    public void set(@Nullable Object object, T value) {
+        if (this.finalSetter != null) {
+            try {
+                this.finalSetter.invoke(object, value);
+            } catch (Throwable throwable) {
+                throw new IllegalStateException("Unable to set field " + this, throwable);
+            }
+        } else if (this.isStatic) {
+            if (this.isFinal) throw new UnsupportedOperationException("Cannot set static final field " + this);
+            this.handle.set(value);
+        } else {
+            this.handle.set(object, value);
+        }
+    }
+
+    /**
+     * Get the VarHandle of this field
+     * <p>When kept in a static final field, the JIT can constant fold the handle,
+     * making reads and writes as fast as regular field access.</p>
+     *
+     * @return VarHandle of field
+     */
+    @NotNull
+    public VarHandle getVarHandle() {
+        return this.handle;
+    }
+
+    /**
+     * Get the field this accessor is for
+     *
+     * @return Field of accessor
+     */
+    @NotNull
+    public Field getField() {
+        return this.field;
+    }
+
+    @Override
+    public String toString() {
+        return "FieldAccessor{" + this.field.getDeclaringClass().getName() + "#" + this.field.getName() + "}";
+    }
+
+    private record Key(Class<?> owner, String name) {
+    }
+
+}
@@ -1,16 +1,15 @@
 package com.shanebeestudios.nms.api.util;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
 import com.mojang.authlib.GameProfile;
-import com.mojang.authlib.properties.Property;
-import com.mojang.authlib.properties.PropertyMap;
 import com.mojang.datafixers.util.Pair;
+import com.shanebeestudios.nms.api.world.entity.PlayerApi;
+import com.shanebeestudios.nms.api.world.entity.skin.Skin;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.Holder;
 import net.minecraft.core.Registry;
 import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
@@ -19,6 +18,7 @@ import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.WorldGenLevel;
 import net.minecraft.world.level.biome.Biome;
@@ -27,6 +27,7 @@ import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.Structure;
 import net.minecraft.world.phys.Vec3;
 import org.apache.commons.lang3.mutable.MutableInt;
 import org.bukkit.Bukkit;
@@ -45,22 +46,18 @@ import org.bukkit.craftbukkit.block.CraftBlock;
 import org.bukkit.craftbukkit.block.data.CraftBlockData;
 import org.bukkit.craftbukkit.entity.CraftEntity;
 import org.bukkit.craftbukkit.entity.CraftPlayer;
+import org.bukkit.craftbukkit.inventory.CraftItemStack;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 /**
  * Utility class for changing Minecraft to/from Bukkit classes
@@ -71,7 +68,12 @@ public class McUtils {
     private McUtils() {
     }
 
-    private static final BlockData AIR = Material.AIR.createBlockData();
+    private static final int MAX_KEY_CACHE_SIZE = 16384;
+    private static final Map<ResourceLocation, NamespacedKey> NAMESPACED_KEY_CACHE = new ConcurrentHashMap<>();
+    private static final Map<NamespacedKey, ResourceLocation> RESOURCE_LOCATION_CACHE = new ConcurrentHashMap<>();
+    private static final Map<Biome, NamespacedKey> BIOME_KEYS = new ConcurrentHashMap<>();
+    private static final Map<Item, NamespacedKey> ITEM_KEYS = new ConcurrentHashMap<>();
+    private static final Map<Structure, NamespacedKey> STRUCTURE_KEYS = new ConcurrentHashMap<>();
 
     /**
      * Get a Minecraft BlockPos from a Bukkit Location
@@ -145,24 +147,114 @@ public class McUtils {
 
     /**
      * Convert a Bukkit NamespacedKey to Minecraft ResourceLocation
+     * <p>Conversions are cached, so the same ResourceLocation instance is returned for equal keys.</p>
      *
      * @param bukkitKey NamespacedKey to change to ResourceLocation
      * @return ResourceLocation from NamespacedKey
      */
     @NotNull
     public static ResourceLocation getResourceLocation(NamespacedKey bukkitKey) {
-        return ResourceLocation.fromNamespaceAndPath(bukkitKey.getNamespace(), bukkitKey.getKey());
+        ResourceLocation resourceLocation = RESOURCE_LOCATION_CACHE.get(bukkitKey);
+        if (resourceLocation == null) {
+            resourceLocation = ResourceLocation.fromNamespaceAndPath(bukkitKey.getNamespace(), bukkitKey.getKey());
+            cache(RESOURCE_LOCATION_CACHE, bukkitKey, resourceLocation);
+        }
+        return resourceLocation;
     }
 
     /**
      * Convert Minecraft ResourceLocation to Bukkit NamespacedKey
+     * <p>Conversions are cached, so the same NamespacedKey instance is returned for equal locations.</p>
      *
      * @param resourceLocation ResourceLocation to change to NamespacedKey
      * @return ResourceLocation from NamespacedKey
      */
     @NotNull
     public static NamespacedKey getNamespacedKey(ResourceLocation resourceLocation) {
-        return new NamespacedKey(resourceLocation.getNamespace(), resourceLocation.getPath());
+        NamespacedKey namespacedKey = NAMESPACED_KEY_CACHE.get(resourceLocation);
+        if (namespacedKey == null) {
+            namespacedKey = new NamespacedKey(resourceLocation.getNamespace(), resourceLocation.getPath());
+            cache(NAMESPACED_KEY_CACHE, resourceLocation, namespacedKey);
+        }
+        return namespacedKey;
+    }
+
+    private static <K, V> void cache(Map<K, V> cache, K key, V value) {
+        // Keys are immutable, so dropping the whole cache when full is always safe
+        if (cache.size() >= MAX_KEY_CACHE_SIZE) cache.clear();
+        cache.put(key, value);
+    }
+
+    /**
+     * Get the key of a value in a registry
+     *
+     * @param registry Registry which holds value
+     * @param value    Value to get key for
+     * @param <T>      Registry class type
+     * @return Key of value, null if not registered
+     */
+    @Nullable
+    public static <T> NamespacedKey getRegistryKey(Registry<T> registry, T value) {
+        ResourceLocation key = registry.getKey(value);
+        return key != null ? getNamespacedKey(key) : null;
+    }
+
+    /**
+     * Get the key of a Biome
+     * <p>Keys are cached per biome instance, including custom biomes.</p>
+     *
+     * @param biome Biome to get key for
+     * @return Key of biome, null if not registered
+     */
+    @Nullable
+    public static NamespacedKey getBiomeKey(Biome biome) {
+        return getCachedRegistryKey(BIOME_KEYS, Registries.BIOME, biome);
+    }
+
+    /**
+     * Get the key of an Item
+     * <p>Keys are cached per item instance.</p>
+     *
+     * @param item Item to get key for
+     * @return Key of item, null if not registered
+     */
+    @Nullable
+    public static NamespacedKey getItemKey(Item item) {
+        return getCachedRegistryKey(ITEM_KEYS, Registries.ITEM, item);
+    }
+
+    /**
+     * Get the key of a Structure
+     * <p>Keys are cached per structure instance.</p>
+     *
+     * @param structure Structure to get key for
+     * @return Key of structure, null if not registered
+     */
+    @Nullable
+    public static NamespacedKey getStructureKey(Structure structure) {
+        return getCachedRegistryKey(STRUCTURE_KEYS, Registries.STRUCTURE, structure);
+    }
+
+    // These registry values don't override equals/hashCode, so these maps are identity maps
+    private static <T> NamespacedKey getCachedRegistryKey(Map<T, NamespacedKey> cache, ResourceKey<? extends Registry<T>> registryKey, T value) {
+        NamespacedKey namespacedKey = cache.get(value);
+        if (namespacedKey == null) {
+            namespacedKey = getRegistryKey(getRegistry(registryKey), value);
+            // Don't cache values which aren't registered (yet)
+            if (namespacedKey != null) cache.put(value, namespacedKey);
+        }
+        return namespacedKey;
+    }
+
+    /**
+     * Clear cached registry keys and {@link RegistrySnapshot registry snapshots}
+     * <p>This is automatically done when registering a {@link com.shanebeestudios.nms.api.world.biome.BiomeDefinition}.</p>
+     */
+    public static void invalidateKeyCaches() {
+        BIOME_KEYS.clear();
+        ITEM_KEYS.clear();
+        STRUCTURE_KEYS.clear();
+        RegistrySnapshot.invalidateAll();
     }
 
     /**
@@ -191,6 +283,8 @@ public class McUtils {
 
     /**
      * Get an instance of a LevelChunk from a {@link Chunk BukkitChunk}
+     * <p>If the chunk isn't loaded, it will be loaded (or generated) synchronously, which can stall the server.
+     * See {@link #getLevelChunkIfLoaded(World, int, int)} and {@link #getLevelChunkAsync(World, int, int)}.</p>
      *
      * @param chunk Bukkit Chunk to convert
      * @return LevelChunk from Chunk
@@ -200,6 +294,38 @@ public class McUtils {
         return serverLevel.getChunk(chunk.getX(), chunk.getZ());
     }
 
+    /**
+     * Get a LevelChunk only if it is already loaded
+     *
+     * @param world  World of chunk
+     * @param chunkX X coordinate of chunk
+     * @param chunkZ Z coordinate of chunk
+     * @return LevelChunk if loaded, otherwise null
+     */
+    @Nullable
+    public static LevelChunk getLevelChunkIfLoaded(@NotNull World world, int chunkX, int chunkZ) {
+        return getServerLevel(world).getChunkSource().getChunkNow(chunkX, chunkZ);
+    }
+
+    /**
+     * Get a LevelChunk, loading (or generating) it asynchronously if it isn't loaded
+     * <p>If the chunk is already loaded, the future is already completed.</p>
+     *
+     * @param world  World of chunk
+     * @param chunkX X coordinate of chunk
+     * @param chunkZ Z coordinate of chunk
+     * @return Future of LevelChunk, completed on the main thread
+     */
+    @NotNull
+    public static CompletableFuture<LevelChunk> getLevelChunkAsync(@NotNull World world, int chunkX, int chunkZ) {
+        ServerLevel serverLevel = getServerLevel(world);
+        LevelChunk loaded = serverLevel.getChunkSource().getChunkNow(chunkX, chunkZ);
+        if (loaded != null) return CompletableFuture.completedFuture(loaded);
+
+        // The chunk is loaded when the future completes, so this won't load it again
+        return world.getChunkAtAsync(chunkX, chunkZ, true).thenApply(chunk -> serverLevel.getChunk(chunkX, chunkZ));
+    }
+
     /**
      * Get a Minecraft Registry
      *
@@ -232,6 +358,21 @@ public class McUtils {
         return ((CraftEntity) bukkitEntity).getHandle();
     }
 
+    /**
+     * Get a Minecraft ItemStack from a Bukkit ItemStack
+     * <p>A CraftItemStack is not copied, its handle is returned instead.</p>
+     *
+     * @param bukkitItemStack Bukkit ItemStack to convert
+     * @return Minecraft ItemStack
+     */
+    @NotNull
+    public static net.minecraft.world.item.ItemStack getNMSItemStack(@NotNull org.bukkit.inventory.ItemStack bukkitItemStack) {
+        if (bukkitItemStack instanceof CraftItemStack craftItemStack) {
+            return craftItemStack.handle != null ? craftItemStack.handle : net.minecraft.world.item.ItemStack.EMPTY;
+        }
+        return CraftItemStack.asNMSCopy(bukkitItemStack);
+    }
+
     /**
      * Get the NMS EntityType from Bukkit EntityType
      *
@@ -257,7 +398,7 @@ public class McUtils {
     @NotNull
     public static BlockData getBlockDataFromState(BlockState blockState) {
         BlockData blockDataFromBlockState = CraftBlockData.fromData(blockState);
-        return blockDataFromBlockState != null ? blockDataFromBlockState : AIR;
+        return blockDataFromBlockState != null ? blockDataFromBlockState : Material.AIR.createBlockData();
     }
 
     /**
@@ -317,6 +458,8 @@ public class McUtils {
 
     /**
      * Get all keys from a registry
+     * <p>Keys are copied from a cached {@link RegistrySnapshot}, which is only rebuilt when the registry changes.
+     * To avoid the copy, use {@link #getRegistrySnapshot(Registry)}.</p>
      *
      * @param registry Registry to grab keys from
      * @param <T>      Registry class type
@@ -324,18 +467,40 @@ public class McUtils {
      */
     @NotNull
     public static <T> List<NamespacedKey> getRegistryKeys(Registry<T> registry) {
-        List<NamespacedKey> keys = new ArrayList<>();
-        registry.keySet().forEach(resourceLocation -> {
-            NamespacedKey namespacedKey = McUtils.getNamespacedKey(resourceLocation);
-            keys.add(namespacedKey);
-        });
-        return keys.stream().sorted(Comparator.comparing(NamespacedKey::toString)).collect(Collectors.toList());
+        return new ArrayList<>(RegistrySnapshot.of(registry).getKeys());
+    }
+
+    /**
+     * Get an immutable snapshot of all keys of a registry
+     * <p>The snapshot is cached and only rebuilt when the registry changes.</p>
+     *
+     * @param registry Registry to get snapshot of
+     * @param <T>      Registry class type
+     * @return Snapshot of registry keys
+     */
+    @NotNull
+    public static <T> RegistrySnapshot getRegistrySnapshot(Registry<T> registry) {
+        return RegistrySnapshot.of(registry);
+    }
+
+    /**
+     * Get all keys from a registry which start with a prefix
+     * <p>See {@link RegistrySnapshot#search(String)} for how keys are matched.</p>
+     *
+     * @param registry Registry to grab keys from
+     * @param prefix   Prefix of keys
+     * @param <T>      Registry class type
+     * @return Unmodifiable list of NamespacedKeys matching prefix
+     */
+    @NotNull
+    public static <T> List<NamespacedKey> getRegistryKeys(Registry<T> registry, String prefix) {
+        return RegistrySnapshot.of(registry).search(prefix);
     }
 
     /**
      * Make a resolver for 3D shifted biomes
      *
-     * @param count       counter
+     * @param count       Counter of biome cells which will change
      * @param chunkAccess Chunk where biome is
      * @param box         BoundingBox for biome change
      * @param biome       Biome
@@ -347,7 +512,7 @@ public class McUtils {
         return (x, y, z, noise) -> {
             Holder<Biome> biomeHolder = chunkAccess.getNoiseBiome(x, y, z);
             if (box.isInside(x << 2, y << 2, z << 2) && filter.test(biomeHolder)) {
-                count.increment();
+                if (biomeHolder.value() != biome.value()) count.increment();
                 return biome;
             } else {
                 return biomeHolder;
@@ -357,30 +522,18 @@ public class McUtils {
 
     /**
      * Set the skin of a GameProfile
+     * <p>The skin is taken from the {@link PlayerApi#getSkinProvider() skin provider}.
+     * If it isn't cached, this blocks until it is fetched, so prefer calling this off the main thread.</p>
      *
      * @param gameProfile Profile to set
      */
-    // Courtesy of Jonas2004
-    // https://www.spigotmc.org/threads/create-fake-player-1-20-2.621480/#post-4649259
-    // (modified a bit)
     public static void setSkin(GameProfile gameProfile) {
-        try {
-            URL url = new URI("https://sessionserver.mojang.com/session/minecraft/profile/" + gameProfile.getId().toString() + "?unsigned=false").toURL();
-            InputStreamReader reader = new InputStreamReader(url.openStream(), StandardCharsets.UTF_8);
-            JsonObject mainObject = new Gson().fromJson(reader, JsonObject.class);
-            if (mainObject == null) {
-                Bukkit.getLogger().warning("[NMS-API] Skin cannot be fetched!");
-                return;
-            }
-            JsonObject properties = mainObject.get("properties").getAsJsonArray().get(0).getAsJsonObject();
-            String value = properties.get("value").getAsString();
-            String signature = properties.get("signature").getAsString();
-            PropertyMap propertyMap = gameProfile.getProperties();
-            propertyMap.put("name", new Property("name", gameProfile.getName()));
-            propertyMap.put("textures", new Property("textures", value, signature));
-        } catch (IOException | URISyntaxException e) {
-            throw new RuntimeException(e);
+        Skin skin = PlayerApi.getSkinProvider().getSkin(gameProfile.getId(), gameProfile.getName()).join();
+        if (skin == null) {
+            Bukkit.getLogger().warning("[NMS-API] Skin cannot be fetched!");
+            return;
         }
+        skin.apply(gameProfile);
     }
 
     /**
@@ -2,10 +2,10 @@ package com.shanebeestudios.nms.api.util;
 
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Field;
-
 /**
  * Utility class with shortcut methods for reflection
+ * <p>Fields are resolved once and cached, see {@link FieldAccessor}.
+ * For fields accessed often, prefer keeping the {@link FieldAccessor#getVarHandle() VarHandle} of a field in a static final field.</p>
  */
 public class ReflectionUtils {
 
@@ -19,10 +19,8 @@ public class ReflectionUtils {
      */
     public static @Nullable Object getField(String field, Class<?> clazz, Object object) {
         try {
-            Field f = clazz.getDeclaredField(field);
-            f.setAccessible(true);
-            return f.get(object);
-        } catch (IllegalAccessException | NoSuchFieldException ex) {
+            return FieldAccessor.of(clazz, field, Object.class).get(object);
+        } catch (RuntimeException ex) {
             ex.printStackTrace();
             return null;
         }
@@ -38,10 +36,8 @@ public class ReflectionUtils {
      */
     public static void setField(String field, Class<?> clazz, Object object, Object toSet) {
         try {
-            Field f = clazz.getDeclaredField(field);
-            f.setAccessible(true);
-            f.set(object, toSet);
-        } catch (IllegalAccessException | IllegalArgumentException | NoSuchFieldException ex) {
+            FieldAccessor.of(clazz, field, Object.class).set(object, toSet);
+        } catch (RuntimeException ex) {
             ex.printStackTrace();
         }
     }
@@ -54,13 +50,7 @@ public class ReflectionUtils {
      * @param toSet  Object to set
      */
     public static void setField(String field, Object object, Object toSet) {
-        try {
-            Field f = object.getClass().getDeclaredField(field);
-            f.setAccessible(true);
-            f.set(object, toSet);
-        } catch (IllegalAccessException | IllegalArgumentException | NoSuchFieldException ex) {
-            ex.printStackTrace();
-        }
+        setField(field, object.getClass(), object, toSet);
     }
 
 }
@@ -0,0 +1,215 @@
+package com.shanebeestudios.nms.api.util;
+
+import net.minecraft.core.MappedRegistry;
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceLocation;
+import org.bukkit.NamespacedKey;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable, sorted snapshot of the keys of a registry
+ * <p>Snapshots are cached per registry. Registries can only change while unfrozen, so snapshots are only cached
+ * for frozen registries. A cached snapshot is dropped when its registry is seen unfrozen,
+ * and rebuilt when the size of the registry changed or when {@link #invalidateAll() invalidated}.
+ * Code which unfreezes a registry, changes it and freezes it again between two calls should invalidate snapshots afterwards,
+ * as done when registering a {@link com.shanebeestudios.nms.api.world.biome.BiomeDefinition}.
+ * Keys are indexed by their full string and by their path, so prefix searches
+ * (such as for tab completion) don't need to scan every key.</p>
+ */
+@SuppressWarnings("unused")
+public class RegistrySnapshot {
+
+    private static final Map<Registry<?>, RegistrySnapshot> SNAPSHOTS = new ConcurrentHashMap<>();
+    private static final VarHandle FROZEN = FieldAccessor.of(MappedRegistry.class, "frozen", Boolean.class).getVarHandle();
+    // Bumped on each invalidation, so snapshots built while invalidating aren't cached as current
+    private static final AtomicInteger EPOCH = new AtomicInteger();
+
+    /**
+     * Get the snapshot of a registry
+     * <p>The snapshot is cached and will be reused until the registry changes.</p>
+     *
+     * @param registry Registry to get snapshot of
+     * @return Snapshot of registry
+     */
+    @NotNull
+    public static RegistrySnapshot of(@NotNull Registry<?> registry) {
+        int epoch = EPOCH.get();
+        // Unfrozen registries may change at any time
+        if (!isFrozen(registry)) {
+            SNAPSHOTS.remove(registry);
+            return new RegistrySnapshot(registry, epoch);
+        }
+        RegistrySnapshot snapshot = SNAPSHOTS.get(registry);
+        if (snapshot == null || snapshot.epoch != epoch || snapshot.size != registry.size()) {
+            snapshot = new RegistrySnapshot(registry, epoch);
+            SNAPSHOTS.put(registry, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Invalidate all cached snapshots
+     * <p>This is automatically done when registering a {@link com.shanebeestudios.nms.api.world.biome.BiomeDefinition}.</p>
+     */
+    public static void invalidateAll() {
+        EPOCH.incrementAndGet();
+        SNAPSHOTS.clear();
+    }
+
+    private final int epoch;
+    private final int size;
+    private final List<NamespacedKey> keys;
+    private final String[] keyStrings;
+    private final String[] paths;
+    private final int[] pathOrder;
+
+    private static boolean isFrozen(Registry<?> registry) {
+        return !(registry instanceof MappedRegistry<?> mappedRegistry) || (boolean) FROZEN.get(mappedRegistry);
+    }
+
+    private RegistrySnapshot(Registry<?> registry, int epoch) {
+        this.epoch = epoch;
+        this.size = registry.size();
+        List<NamespacedKey> keys = new ArrayList<>(registry.size());
+        for (ResourceLocation resourceLocation : registry.keySet()) {
+            keys.add(McUtils.getNamespacedKey(resourceLocation));
+        }
+        keys.sort(Comparator.comparing(NamespacedKey::toString));
+        this.keys = List.copyOf(keys);
+
+        int size = this.keys.size();
+        this.keyStrings = new String[size];
+        for (int i = 0; i < size; i++) {
+            this.keyStrings[i] = this.keys.get(i).toString();
+        }
+
+        // Index into keys, sorted by path
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing((Integer i) -> this.keys.get(i).getKey()).thenComparingInt(i -> i));
+        this.paths = new String[size];
+        this.pathOrder = new int[size];
+        for (int i = 0; i < size; i++) {
+            this.pathOrder[i] = order[i];
+            this.paths[i] = this.keys.get(order[i]).getKey();
+        }
+    }
+
+    /**
+     * Get the size of the registry when this snapshot was taken
+     *
+     * @return Size of registry
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Get all keys of this snapshot
+     *
+     * @return Unmodifiable list of keys, sorted by their string representation
+     */
+    @NotNull
+    public List<NamespacedKey> getKeys() {
+        return this.keys;
+    }
+
+    /**
+     * Get keys whose full string (ex: "minecraft:plains") starts with a prefix
+     *
+     * @param prefix Prefix of keys
+     * @return Unmodifiable list of matching keys, sorted by their string representation
+     */
+    @NotNull
+    public List<NamespacedKey> searchByKey(@NotNull String prefix) {
+        int from = lowerBound(this.keyStrings, prefix);
+        int to = from;
+        while (to < this.keyStrings.length && this.keyStrings[to].startsWith(prefix)) {
+            to++;
+        }
+        return this.keys.subList(from, to);
+    }
+
+    /**
+     * Get keys whose path (ex: "plains" of "minecraft:plains") starts with a prefix
+     *
+     * @param prefix Prefix of key paths
+     * @return Unmodifiable list of matching keys, sorted by their string representation
+     */
+    @NotNull
+    public List<NamespacedKey> searchByPath(@NotNull String prefix) {
+        int from = lowerBound(this.paths, prefix);
+        // Collect matching indices so results keep the order of the full key list
+        TreeSet<Integer> matches = new TreeSet<>();
+        for (int i = from; i < this.paths.length && this.paths[i].startsWith(prefix); i++) {
+            matches.add(this.pathOrder[i]);
+        }
+        return toKeys(matches);
+    }
+
+    /**
+     * Search keys the same way Minecraft's command suggestions do
+     * <p>If the prefix contains a namespace, keys are matched by their full string,
+     * otherwise keys are matched by either their full string or their path.</p>
+     *
+     * @param prefix Prefix of keys
+     * @return Unmodifiable list of matching keys, sorted by their string representation
+     */
+    @NotNull
+    public List<NamespacedKey> search(@NotNull String prefix) {
+        if (prefix.isEmpty()) return this.keys;
+        if (prefix.indexOf(':') >= 0) return searchByKey(prefix);
+
+        TreeSet<Integer> matches = new TreeSet<>();
+        int from = lowerBound(this.keyStrings, prefix);
+        for (int i = from; i < this.keyStrings.length && this.keyStrings[i].startsWith(prefix); i++) {
+            matches.add(i);
+        }
+        from = lowerBound(this.paths, prefix);
+        for (int i = from; i < this.paths.length && this.paths[i].startsWith(prefix); i++) {
+            matches.add(this.pathOrder[i]);
+        }
+        return toKeys(matches);
+    }
+
+    private List<NamespacedKey> toKeys(TreeSet<Integer> indices) {
+        List<NamespacedKey> keys = new ArrayList<>(indices.size());
+        for (int index : indices) {
+            keys.add(this.keys.get(index));
+        }
+        return List.copyOf(keys);
+    }
+
+    // First index which is not less than the key
+    private static int lowerBound(String[] array, String key) {
+        int low = 0;
+        int high = array.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (array[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public String toString() {
+        return "RegistrySnapshot{size=" + this.size + ",epoch=" + this.epoch + "}";
+    }
+
+}
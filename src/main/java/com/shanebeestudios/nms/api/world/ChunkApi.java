@@ -1,18 +1,31 @@
 package com.shanebeestudios.nms.api.world;
 
+import com.shanebeestudios.nms.api.server.ApiMetrics;
 import com.shanebeestudios.nms.api.util.McUtils;
+import com.shanebeestudios.nms.api.world.chunk.ChunkSnapshot;
+import com.shanebeestudios.nms.api.world.chunk.ChunkStats;
+import com.shanebeestudios.nms.api.world.chunk.ChunkTickets;
+import com.shanebeestudios.nms.api.world.chunk.RegionPreloader;
+import com.shanebeestudios.nms.api.world.edit.EditTask;
 import net.minecraft.server.level.ChunkMap;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.Difficulty;
 import net.minecraft.world.DifficultyInstance;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.chunk.LevelChunk;
 import org.bukkit.Chunk;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Api methods pertaining to a {@link Chunk}
@@ -31,7 +44,48 @@ public class ChunkApi {
      */
     @NotNull
     public static LevelChunk getLevelChunk(@NotNull Chunk chunk) {
-        return McUtils.getLevelChunk(chunk);
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return McUtils.getLevelChunk(chunk);
+        } finally {
+            ApiMetrics.record("ChunkApi#getLevelChunk", sample);
+        }
+    }
+
+    /**
+     * Get a Minecraft LevelChunk only if it is already loaded
+     *
+     * @param world  World of chunk
+     * @param chunkX X coordinate of chunk
+     * @param chunkZ Z coordinate of chunk
+     * @return Minecraft LevelChunk if loaded, otherwise null
+     */
+    @Nullable
+    public static LevelChunk getLevelChunkIfLoaded(@NotNull World world, int chunkX, int chunkZ) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return McUtils.getLevelChunkIfLoaded(world, chunkX, chunkZ);
+        } finally {
+            ApiMetrics.record("ChunkApi#getLevelChunkIfLoaded", sample);
+        }
+    }
+
+    /**
+     * Get a Minecraft LevelChunk, loading (or generating) it asynchronously if it isn't loaded
+     *
+     * @param world  World of chunk
+     * @param chunkX X coordinate of chunk
+     * @param chunkZ Z coordinate of chunk
+     * @return Future of Minecraft LevelChunk, completed on the main thread
+     */
+    @NotNull
+    public static CompletableFuture<LevelChunk> getLevelChunkAsync(@NotNull World world, int chunkX, int chunkZ) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return McUtils.getLevelChunkAsync(world, chunkX, chunkZ);
+        } finally {
+            ApiMetrics.record("ChunkApi#getLevelChunkAsync", sample);
+        }
     }
 
     /**
@@ -43,14 +97,19 @@ public class ChunkApi {
      */
     @NotNull
     public static List<Player> getTicketHolders(@NotNull Chunk chunk) {
-        LevelChunk levelChunk = getLevelChunk(chunk);
-        ServerLevel level = (ServerLevel) levelChunk.getLevel();
-        ChunkMap chunkMap = level.getChunkSource().chunkMap;
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            LevelChunk levelChunk = McUtils.getLevelChunk(chunk);
+            ServerLevel level = (ServerLevel) levelChunk.getLevel();
+            ChunkMap chunkMap = level.getChunkSource().chunkMap;
 
-        List<Player> players = new ArrayList<>();
-        chunkMap.getPlayers(levelChunk.getPos(), false)
-            .forEach(serverPlayer -> players.add(serverPlayer.getBukkitEntity()));
-        return players;
+            List<Player> players = new ArrayList<>();
+            chunkMap.getPlayers(levelChunk.getPos(), false)
+                .forEach(serverPlayer -> players.add(serverPlayer.getBukkitEntity()));
+            return players;
+        } finally {
+            ApiMetrics.record("ChunkApi#getTicketHolders", sample);
+        }
     }
 
     /**
@@ -61,16 +120,264 @@ public class ChunkApi {
      * @return Effective difficulty of chunk
      */
     public static float getEffectiveDifficulty(Chunk chunk) {
-        LevelChunk levelChunk = getLevelChunk(chunk);
-        Level level = levelChunk.getLevel();
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            LevelChunk levelChunk = McUtils.getLevelChunk(chunk);
+            Level level = levelChunk.getLevel();
+
+            Difficulty difficulty = level.getDifficulty();
+            long dayTime = level.getDayTime();
+            long inhabitedTime = levelChunk.getInhabitedTime();
+            float moonBrightness = level.getMoonBrightness();
+
+            DifficultyInstance difficultyInstance = new DifficultyInstance(difficulty, dayTime, inhabitedTime, moonBrightness);
+            return difficultyInstance.getEffectiveDifficulty();
+        } finally {
+            ApiMetrics.record("ChunkApi#getEffectiveDifficulty", sample);
+        }
+    }
+
+    /**
+     * Get stats of what makes a chunk expensive to tick
+     * <p>See {@link ChunkStats} for more details.</p>
+     *
+     * @param chunk Chunk to get stats for
+     * @return Stats of chunk
+     */
+    @NotNull
+    public static ChunkStats getChunkStats(@NotNull Chunk chunk) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return ChunkStats.of(McUtils.getLevelChunk(chunk));
+        } finally {
+            ApiMetrics.record("ChunkApi#getChunkStats", sample, 0, 1);
+        }
+    }
+
+    /**
+     * Get stats of what makes a chunk expensive to tick, only if the chunk is already loaded
+     *
+     * @param world  World of chunk
+     * @param chunkX X coordinate of chunk
+     * @param chunkZ Z coordinate of chunk
+     * @return Stats of chunk if loaded, otherwise null
+     */
+    @Nullable
+    public static ChunkStats getChunkStatsIfLoaded(@NotNull World world, int chunkX, int chunkZ) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            LevelChunk levelChunk = McUtils.getLevelChunkIfLoaded(world, chunkX, chunkZ);
+            return levelChunk != null ? ChunkStats.of(levelChunk) : null;
+        } finally {
+            ApiMetrics.record("ChunkApi#getChunkStatsIfLoaded", sample, 0, 1);
+        }
+    }
+
+    /**
+     * Get stats of what makes a chunk expensive to tick, loading (or generating) the chunk asynchronously if it isn't loaded
+     *
+     * @param world  World of chunk
+     * @param chunkX X coordinate of chunk
+     * @param chunkZ Z coordinate of chunk
+     * @return Future of stats of chunk, completed on the main thread
+     */
+    @NotNull
+    public static CompletableFuture<ChunkStats> getChunkStatsAsync(@NotNull World world, int chunkX, int chunkZ) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return McUtils.getLevelChunkAsync(world, chunkX, chunkZ).thenApply(ChunkStats::of);
+        } finally {
+            ApiMetrics.record("ChunkApi#getChunkStatsAsync", sample);
+        }
+    }
+
+    /**
+     * Scan all loaded chunks of a world for the most expensive chunks
+     * <p>The scan is spread across ticks, chunks are scanned each tick until the per-tick budget is used up.
+     * Chunks which unload before being reached are skipped.</p>
+     *
+     * @param world        World to scan
+     * @param topN         Amount of chunks to rank
+     * @param budgetMillis Max milliseconds to spend scanning per tick
+     * @return Task of the scan, which completes with the most expensive chunks (highest {@link ChunkStats#getScore() score} first)
+     */
+    @NotNull
+    public static EditTask<List<ChunkStats>> scanHotspots(@NotNull World world, int topN, double budgetMillis) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            ServerLevel level = McUtils.getServerLevel(world);
+            Chunk[] loadedChunks = world.getLoadedChunks();
+            long[] chunks = new long[loadedChunks.length];
+            for (int i = 0; i < loadedChunks.length; i++) {
+                chunks[i] = ChunkPos.asLong(loadedChunks[i].getX(), loadedChunks[i].getZ());
+            }
 
-        Difficulty difficulty = level.getDifficulty();
-        long dayTime = level.getDayTime();
-        long inhabitedTime = levelChunk.getInhabitedTime();
-        float moonBrightness = level.getMoonBrightness();
+            // Min-heap, so the cheapest of the top chunks is dropped first
+            PriorityQueue<ChunkStats> top = new PriorityQueue<>(Comparator.comparingDouble(ChunkStats::getScore));
+            return EditTask.schedule(chunks, budgetMillis, chunkPos -> {
+                LevelChunk levelChunk = level.getChunkSource().getChunkNow(ChunkPos.getX(chunkPos), ChunkPos.getZ(chunkPos));
+                if (levelChunk == null) return;
 
-        DifficultyInstance difficultyInstance = new DifficultyInstance(difficulty, dayTime, inhabitedTime, moonBrightness);
-        return difficultyInstance.getEffectiveDifficulty();
+                top.add(ChunkStats.of(levelChunk));
+                if (top.size() > topN) top.poll();
+            }, () -> {
+                List<ChunkStats> result = new ArrayList<>(top);
+                result.sort(Comparator.comparingDouble(ChunkStats::getScore).reversed());
+                return result;
+            });
+        } finally {
+            ApiMetrics.record("ChunkApi#scanHotspots", sample);
+        }
+    }
+
+    /**
+     * Add tickets to all chunks in a region, keeping them loaded until removed
+     * <p>Chunks which aren't loaded yet will be loaded by the server over the next ticks,
+     * use {@link #preloadRegion(World, int, int, int, int, int, NamespacedKey, boolean)} to load them without stalling.</p>
+     *
+     * @param world     World of chunks
+     * @param minChunkX Min X coordinate of chunks
+     * @param minChunkZ Min Z coordinate of chunks
+     * @param maxChunkX Max X coordinate of chunks (inclusive)
+     * @param maxChunkZ Max Z coordinate of chunks (inclusive)
+     * @param holder    Holder of tickets, used to remove them again
+     * @param ticking   Whether the chunks should tick, otherwise they are only kept loaded
+     * @return Amount of chunks tickets were added to
+     */
+    public static int addTickets(@NotNull World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, @NotNull NamespacedKey holder, boolean ticking) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        int count = 0;
+        try {
+            count = ChunkTickets.addRegion(McUtils.getServerLevel(world), minChunkX, minChunkZ, maxChunkX, maxChunkZ, holder, ticking);
+            return count;
+        } finally {
+            ApiMetrics.record("ChunkApi#addTickets", sample, 0, count);
+        }
+    }
+
+    /**
+     * Remove tickets from all chunks in a region
+     *
+     * @param world     World of chunks
+     * @param minChunkX Min X coordinate of chunks
+     * @param minChunkZ Min Z coordinate of chunks
+     * @param maxChunkX Max X coordinate of chunks (inclusive)
+     * @param maxChunkZ Max Z coordinate of chunks (inclusive)
+     * @param holder    Holder of tickets
+     * @param ticking   Whether the tickets were added as ticking
+     * @return Amount of chunks tickets were removed from
+     */
+    public static int removeTickets(@NotNull World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, @NotNull NamespacedKey holder, boolean ticking) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        int count = 0;
+        try {
+            count = ChunkTickets.removeRegion(McUtils.getServerLevel(world), minChunkX, minChunkZ, maxChunkX, maxChunkZ, holder, ticking);
+            return count;
+        } finally {
+            ApiMetrics.record("ChunkApi#removeTickets", sample, 0, count);
+        }
+    }
+
+    /**
+     * Load (or generate) a region of chunks asynchronously
+     * <p>At most maxInFlight chunks are loaded at the same time, see {@link RegionPreloader} for more details.</p>
+     *
+     * @param world       World to load chunks in
+     * @param minChunkX   Min X coordinate of chunks
+     * @param minChunkZ   Min Z coordinate of chunks
+     * @param maxChunkX   Max X coordinate of chunks (inclusive)
+     * @param maxChunkZ   Max Z coordinate of chunks (inclusive)
+     * @param maxInFlight Max amount of chunks to load at the same time
+     * @param holder      Holder of tickets to add to loaded chunks, null to not add tickets
+     * @param ticking     Whether tickets should make chunks tick, otherwise they are only kept loaded
+     * @return Preloader handle, to track progress or cancel
+     */
+    @NotNull
+    public static RegionPreloader preloadRegion(@NotNull World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ,
+                                                int maxInFlight, @Nullable NamespacedKey holder, boolean ticking) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return RegionPreloader.start(world, minChunkX, minChunkZ, maxChunkX, maxChunkZ, maxInFlight, holder, ticking);
+        } finally {
+            ApiMetrics.record("ChunkApi#preloadRegion", sample);
+        }
+    }
+
+    /**
+     * Take a read-only snapshot of the blocks, biomes, heightmaps and light of a chunk
+     * <p>The snapshot can be read from any thread, see {@link ChunkSnapshot} for more details.</p>
+     * <p>NOTE: This must be called on the main thread.</p>
+     *
+     * @param chunk Chunk to take snapshot of
+     * @return Snapshot of chunk
+     */
+    @NotNull
+    public static ChunkSnapshot snapshot(@NotNull Chunk chunk) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return ChunkSnapshot.of(McUtils.getLevelChunk(chunk));
+        } finally {
+            ApiMetrics.record("ChunkApi#snapshot", sample, 0, 1);
+        }
+    }
+
+    /**
+     * Take read-only snapshots of all loaded chunks in a region
+     * <p>Chunks which aren't loaded are skipped,
+     * use {@link #snapshotRegionAsync(World, int, int, int, int)} to load them first.</p>
+     * <p>NOTE: This must be called on the main thread.</p>
+     *
+     * @param world     World of chunks
+     * @param minChunkX Min X coordinate of chunks
+     * @param minChunkZ Min Z coordinate of chunks
+     * @param maxChunkX Max X coordinate of chunks (inclusive)
+     * @param maxChunkZ Max Z coordinate of chunks (inclusive)
+     * @return Snapshots of loaded chunks
+     */
+    @NotNull
+    public static List<ChunkSnapshot> snapshotRegion(@NotNull World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        List<ChunkSnapshot> snapshots = null;
+        try {
+            snapshots = snapshotLoaded(world, minChunkX, minChunkZ, maxChunkX, maxChunkZ);
+            return snapshots;
+        } finally {
+            ApiMetrics.record("ChunkApi#snapshotRegion", sample, 0, snapshots != null ? snapshots.size() : 0);
+        }
+    }
+
+    private static List<ChunkSnapshot> snapshotLoaded(World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        List<ChunkSnapshot> snapshots = new ArrayList<>();
+        ServerLevel level = McUtils.getServerLevel(world);
+        for (int z = minChunkZ; z <= maxChunkZ; z++) {
+            for (int x = minChunkX; x <= maxChunkX; x++) {
+                LevelChunk levelChunk = level.getChunkSource().getChunkNow(x, z);
+                if (levelChunk != null) snapshots.add(ChunkSnapshot.of(levelChunk));
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Take read-only snapshots of all chunks in a region, loading (or generating) chunks asynchronously first
+     * <p>NOTE: This must be called on the main thread.</p>
+     *
+     * @param world     World of chunks
+     * @param minChunkX Min X coordinate of chunks
+     * @param minChunkZ Min Z coordinate of chunks
+     * @param maxChunkX Max X coordinate of chunks (inclusive)
+     * @param maxChunkZ Max Z coordinate of chunks (inclusive)
+     * @return Future of snapshots of chunks, completed on the main thread
+     */
+    @NotNull
+    public static CompletableFuture<List<ChunkSnapshot>> snapshotRegionAsync(@NotNull World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return RegionPreloader.whenLoaded(world, minChunkX, minChunkZ, maxChunkX, maxChunkZ,
+                () -> snapshotLoaded(world, minChunkX, minChunkZ, maxChunkX, maxChunkZ));
+        } finally {
+            ApiMetrics.record("ChunkApi#snapshotRegionAsync", sample);
+        }
     }
 
 }
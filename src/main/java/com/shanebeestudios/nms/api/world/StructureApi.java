@@ -1,6 +1,7 @@
 package com.shanebeestudios.nms.api.world;
 
 import com.mojang.datafixers.util.Pair;
+import com.shanebeestudios.nms.api.server.ApiMetrics;
 import com.shanebeestudios.nms.api.util.McUtils;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Holder;
@@ -21,10 +22,12 @@ import org.bukkit.block.structure.StructureRotation;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * API methods relating to Structures
@@ -49,15 +52,20 @@ public class StructureApi {
      * @see <a href="https://minecraft.wiki/w/Configured_feature">McWiki - Configured Feature</a>
      */
     public static boolean placeConfiguredFeature(@NotNull NamespacedKey featureKey, @NotNull Location location) {
-        Pair<ServerLevel, BlockPos> levelPos = McUtils.getLevelPos(location);
-        ServerLevel serverLevel = levelPos.getFirst();
-        BlockPos blockPos = levelPos.getSecond();
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            Pair<ServerLevel, BlockPos> levelPos = McUtils.getLevelPos(location);
+            ServerLevel serverLevel = levelPos.getFirst();
+            BlockPos blockPos = levelPos.getSecond();
 
-        ConfiguredFeature<?, ?> configuredFeature = McUtils.getRegistryValue(CONFIGURED_FEATURE_REGISTRY, featureKey);
-        if (configuredFeature != null) {
-            return configuredFeature.place(serverLevel, serverLevel.getChunkSource().getGenerator(), serverLevel.getRandom(), blockPos);
+            ConfiguredFeature<?, ?> configuredFeature = McUtils.getRegistryValue(CONFIGURED_FEATURE_REGISTRY, featureKey);
+            if (configuredFeature != null) {
+                return configuredFeature.place(serverLevel, serverLevel.getChunkSource().getGenerator(), serverLevel.getRandom(), blockPos);
+            }
+            return false;
+        } finally {
+            ApiMetrics.record("StructureApi#placeConfiguredFeature", sample);
         }
-        return false;
     }
 
     /**
@@ -69,15 +77,20 @@ public class StructureApi {
      * @see <a href="https://minecraft.wiki/w/Placed_feature">McWiki - Placed Feature</a>
      */
     public static boolean placePlacedFeature(@NotNull NamespacedKey featureKey, @NotNull Location location) {
-        Pair<ServerLevel, BlockPos> levelPos = McUtils.getLevelPos(location);
-        ServerLevel serverLevel = levelPos.getFirst();
-        BlockPos blockPos = levelPos.getSecond();
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            Pair<ServerLevel, BlockPos> levelPos = McUtils.getLevelPos(location);
+            ServerLevel serverLevel = levelPos.getFirst();
+            BlockPos blockPos = levelPos.getSecond();
 
-        PlacedFeature placedFeature = McUtils.getRegistryValue(PLACED_FEATURE_REGISTRY, featureKey);
-        if (placedFeature != null) {
-            return placedFeature.placeWithBiomeCheck(serverLevel, serverLevel.getChunkSource().getGenerator(), serverLevel.getRandom(), blockPos);
+            PlacedFeature placedFeature = McUtils.getRegistryValue(PLACED_FEATURE_REGISTRY, featureKey);
+            if (placedFeature != null) {
+                return placedFeature.placeWithBiomeCheck(serverLevel, serverLevel.getChunkSource().getGenerator(), serverLevel.getRandom(), blockPos);
+            }
+            return false;
+        } finally {
+            ApiMetrics.record("StructureApi#placePlacedFeature", sample);
         }
-        return false;
     }
 
     /**
@@ -108,19 +121,77 @@ public class StructureApi {
      */
     @Nullable
     public static Location locateNearestStructure(@NotNull NamespacedKey structureKey, @NotNull Location location, int radius, boolean findUnexplored) {
-        Pair<ServerLevel, BlockPos> levelPos = McUtils.getLevelPos(location);
-        ServerLevel serverLevel = levelPos.getFirst();
-        BlockPos blockPos = levelPos.getSecond();
-
-        Holder.Reference<Structure> structureHolder = McUtils.getHolderReference(STRUCTURE_REGISTRY, structureKey);
-        if (structureHolder != null) {
-            Pair<BlockPos, Holder<Structure>> nearestMapStructure = serverLevel.getChunkSource().getGenerator()
-                    .findNearestMapStructure(serverLevel, HolderSet.direct(structureHolder), blockPos, radius, findUnexplored);
-            if (nearestMapStructure != null) {
-                return McUtils.getLocation(nearestMapStructure.getFirst(), serverLevel);
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            Pair<ServerLevel, BlockPos> levelPos = McUtils.getLevelPos(location);
+            ServerLevel serverLevel = levelPos.getFirst();
+            BlockPos blockPos = levelPos.getSecond();
+
+            Holder.Reference<Structure> structureHolder = McUtils.getHolderReference(STRUCTURE_REGISTRY, structureKey);
+            if (structureHolder != null) {
+                Pair<BlockPos, Holder<Structure>> nearestMapStructure = serverLevel.getChunkSource().getGenerator()
+                        .findNearestMapStructure(serverLevel, HolderSet.direct(structureHolder), blockPos, radius, findUnexplored);
+                if (nearestMapStructure != null) {
+                    return McUtils.getLocation(nearestMapStructure.getFirst(), serverLevel);
+                }
             }
+            return null;
+        } finally {
+            ApiMetrics.record("StructureApi#locateNearestStructure", sample);
+        }
+    }
+
+    /**
+     * Locate the nearest placed structure without blocking the main thread
+     * <p>This does not mean a StructureBlock Structure, this means a structure
+     * placed in a world, such as a village.
+     * Will default to a radius of 6400, true for findUnexplored and a timeout of 30 seconds.</p>
+     *
+     * @param structureKey Key of structure to find
+     * @param location     Location to center search from
+     * @return Future of the location of structure, completes with null if not found
+     */
+    @NotNull
+    public static CompletableFuture<Location> locateNearestStructureAsync(@NotNull NamespacedKey structureKey, @NotNull Location location) {
+        return locateNearestStructureAsync(structureKey, location, 6400, true, Duration.ofSeconds(30));
+    }
+
+    /**
+     * Locate the nearest placed structure without blocking the main thread
+     * <p>This does not mean a StructureBlock Structure, this means a structure
+     * placed in a world, such as a village.
+     * The returned future can be cancelled to stop the search.
+     * Structure starts are cached, see {@link StructureLocator} for more details.</p>
+     * <p>NOTE: This must be called on the main thread.</p>
+     *
+     * @param structureKey   Key of structure to find
+     * @param location       Location to center search from
+     * @param radius         Max radius to search in
+     * @param findUnexplored Whether to look for structures that haven't generated yet
+     * @param timeout        Max time to search for, the future completes with a TimeoutException when exceeded
+     * @return Future of the location of structure, completes with null if not found
+     */
+    @NotNull
+    public static CompletableFuture<Location> locateNearestStructureAsync(@NotNull NamespacedKey structureKey, @NotNull Location location,
+                                                                          int radius, boolean findUnexplored, @NotNull Duration timeout) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            Pair<ServerLevel, BlockPos> levelPos = McUtils.getLevelPos(location);
+            ServerLevel serverLevel = levelPos.getFirst();
+
+            Holder.Reference<Structure> structureHolder = McUtils.getHolderReference(STRUCTURE_REGISTRY, structureKey);
+            if (structureHolder == null) return CompletableFuture.completedFuture(null);
+
+            CompletableFuture<BlockPos> future = StructureLocator.locate(serverLevel, structureHolder, levelPos.getSecond(), radius, findUnexplored, timeout);
+            CompletableFuture<Location> locationFuture = future.thenApply(pos -> pos != null ? McUtils.getLocation(pos, serverLevel) : null);
+            // Cancelling the returned future should also stop the search
+            locationFuture.whenComplete((loc, throwable) -> {
+                if (locationFuture.isCancelled()) future.cancel(false);
+            });
+            return locationFuture;
+        } finally {
+            ApiMetrics.record("StructureApi#locateNearestStructureAsync", sample);
         }
-        return null;
     }
 
     /**
@@ -130,7 +201,29 @@ public class StructureApi {
      */
     @NotNull
     public static List<NamespacedKey> getConfiguredFeatures() {
-        return McUtils.getRegistryKeys(CONFIGURED_FEATURE_REGISTRY);
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return McUtils.getRegistryKeys(CONFIGURED_FEATURE_REGISTRY);
+        } finally {
+            ApiMetrics.record("StructureApi#getConfiguredFeatures", sample);
+        }
+    }
+
+    /**
+     * Get a list of registered configured features which start with a prefix
+     * <p>Useful for tab completion, see {@link com.shanebeestudios.nms.api.util.RegistrySnapshot#search(String)}.</p>
+     *
+     * @param prefix Prefix of keys
+     * @return Unmodifiable list of matching configured features
+     */
+    @NotNull
+    public static List<NamespacedKey> getConfiguredFeatures(@NotNull String prefix) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return McUtils.getRegistryKeys(CONFIGURED_FEATURE_REGISTRY, prefix);
+        } finally {
+            ApiMetrics.record("StructureApi#getConfiguredFeatures", sample);
+        }
     }
 
     /**
@@ -140,7 +233,29 @@ public class StructureApi {
      */
     @NotNull
     public static List<NamespacedKey> getPlacedFeatures() {
-        return McUtils.getRegistryKeys(PLACED_FEATURE_REGISTRY);
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return McUtils.getRegistryKeys(PLACED_FEATURE_REGISTRY);
+        } finally {
+            ApiMetrics.record("StructureApi#getPlacedFeatures", sample);
+        }
+    }
+
+    /**
+     * Get a list of registered placed features which start with a prefix
+     * <p>Useful for tab completion, see {@link com.shanebeestudios.nms.api.util.RegistrySnapshot#search(String)}.</p>
+     *
+     * @param prefix Prefix of keys
+     * @return Unmodifiable list of matching placed features
+     */
+    @NotNull
+    public static List<NamespacedKey> getPlacedFeatures(@NotNull String prefix) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return McUtils.getRegistryKeys(PLACED_FEATURE_REGISTRY, prefix);
+        } finally {
+            ApiMetrics.record("StructureApi#getPlacedFeatures", sample);
+        }
     }
 
     /**
@@ -152,7 +267,29 @@ public class StructureApi {
      */
     @NotNull
     public static List<NamespacedKey> getStructures() {
-        return McUtils.getRegistryKeys(STRUCTURE_REGISTRY);
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return McUtils.getRegistryKeys(STRUCTURE_REGISTRY);
+        } finally {
+            ApiMetrics.record("StructureApi#getStructures", sample);
+        }
+    }
+
+    /**
+     * Get a list of available structures which start with a prefix
+     * <p>Useful for tab completion, see {@link com.shanebeestudios.nms.api.util.RegistrySnapshot#search(String)}.</p>
+     *
+     * @param prefix Prefix of keys
+     * @return Unmodifiable list of matching structures
+     */
+    @NotNull
+    public static List<NamespacedKey> getStructures(@NotNull String prefix) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return McUtils.getRegistryKeys(STRUCTURE_REGISTRY, prefix);
+        } finally {
+            ApiMetrics.record("StructureApi#getStructures", sample);
+        }
     }
 
     /**
@@ -163,9 +300,14 @@ public class StructureApi {
      * @return List of available structure templates
      */
     public static List<NamespacedKey> getStructureTemplates() {
-        List<NamespacedKey> keys = new ArrayList<>();
-        STRUCTURE_MANAGER.listTemplates().sorted(Comparator.comparing(ResourceLocation::toString)).forEach(resourceLocation -> keys.add(McUtils.getNamespacedKey(resourceLocation)));
-        return keys;
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            List<NamespacedKey> keys = new ArrayList<>();
+            STRUCTURE_MANAGER.listTemplates().sorted(Comparator.comparing(ResourceLocation::toString)).forEach(resourceLocation -> keys.add(McUtils.getNamespacedKey(resourceLocation)));
+            return keys;
+        } finally {
+            ApiMetrics.record("StructureApi#getStructureTemplates", sample);
+        }
     }
 
 }
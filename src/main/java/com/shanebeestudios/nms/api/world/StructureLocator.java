@@ -0,0 +1,258 @@
+package com.shanebeestudios.nms.api.world;
+
+import com.mojang.datafixers.util.Pair;
+import com.shanebeestudios.nms.api.util.McUtils;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderSet;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.StructureManager;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkGeneratorStructureState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.structure.Structure;
+import net.minecraft.world.level.levelgen.structure.StructureStart;
+import net.minecraft.world.level.levelgen.structure.placement.RandomSpreadStructurePlacement;
+import net.minecraft.world.level.levelgen.structure.placement.StructurePlacement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Locates structures without blocking the main thread
+ * <p>For structures placed on a grid (such as villages), the placement grid is walked off the main thread,
+ * spiralling outwards from the center the same way Minecraft does.
+ * Candidate chunks are loaded (or generated) asynchronously, a few at a time,
+ * and only the structure starts of a loaded chunk are read on the main thread.
+ * Unlike Minecraft's locate, the main thread never reads or generates a chunk to check a candidate.</p>
+ * <p>Checked candidates are cached per level and structure, including candidates without a structure,
+ * so repeated searches around the same area only cost a cache lookup.
+ * Whether a structure was explored changes over time, so when looking for unexplored structures
+ * only that is checked, for the structures found in the nearest ring.</p>
+ */
+@SuppressWarnings("unused")
+public class StructureLocator {
+
+    private StructureLocator() {
+    }
+
+    // Max candidate chunks to load at the same time
+    private static final int MAX_BATCH_SIZE = 16;
+    private static final int MAX_CACHE_SIZE = 65536;
+    private static final BlockPos NO_STRUCTURE = new BlockPos(0, 0, 0);
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "NMS-API Structure Locator #" + THREAD_ID.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Map<CacheKey, Map<Long, BlockPos>> STARTS = new ConcurrentHashMap<>();
+
+    /**
+     * Locate the nearest placed structure
+     * <p>The returned future can be cancelled to stop the search.
+     * If the search takes longer than the timeout, the future completes with a {@link TimeoutException}.</p>
+     * <p>Structures which aren't placed on a grid (such as strongholds) are located on the main thread,
+     * as their possible positions are already calculated by the server.</p>
+     * <p>NOTE: This must be called on the main thread, the returned future completes off the main thread.</p>
+     *
+     * @param level          Level to search in
+     * @param structure      Structure to find
+     * @param center         Position to search from
+     * @param radius         Max radius to search, in placement grid cells
+     * @param findUnexplored Whether to only look for structures that haven't been found before
+     * @param timeout        Max time to search for
+     * @return Future of the position of the structure, completes with null if not found
+     */
+    @NotNull
+    public static CompletableFuture<BlockPos> locate(@NotNull ServerLevel level, @NotNull Holder.Reference<Structure> structure, @NotNull BlockPos center,
+                                                     int radius, boolean findUnexplored, @NotNull Duration timeout) {
+        CompletableFuture<BlockPos> future = new CompletableFuture<>();
+        ChunkGeneratorStructureState state = level.getChunkSource().getGeneratorState();
+        List<StructurePlacement> placements = state.getPlacementsForStructure(structure);
+
+        List<RandomSpreadStructurePlacement> gridPlacements = new ArrayList<>();
+        for (StructurePlacement placement : placements) {
+            if (placement instanceof RandomSpreadStructurePlacement randomSpread) {
+                gridPlacements.add(randomSpread);
+            } else {
+                // Not grid based, let Minecraft handle it
+                Pair<BlockPos, Holder<Structure>> nearest = level.getChunkSource().getGenerator()
+                    .findNearestMapStructure(level, HolderSet.direct(structure), center, radius, findUnexplored);
+                future.complete(nearest != null ? nearest.getFirst() : null);
+                return future;
+            }
+        }
+        if (gridPlacements.isEmpty()) {
+            future.complete(null);
+            return future;
+        }
+
+        Map<Long, BlockPos> starts = STARTS.computeIfAbsent(new CacheKey(level.dimension(), structure.key()), key -> new ConcurrentHashMap<>());
+        long seed = state.getLevelSeed();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        int chunkX = SectionPos.blockToSectionCoord(center.getX());
+        int chunkZ = SectionPos.blockToSectionCoord(center.getZ());
+
+        EXECUTOR.execute(() -> {
+            try {
+                for (int ring = 0; ring <= radius; ring++) {
+                    if (future.isDone()) return;
+                    if (System.nanoTime() > deadline) {
+                        future.completeExceptionally(new TimeoutException("Structure search timed out after " + ring + " rings"));
+                        return;
+                    }
+
+                    List<Candidate> candidates = getCandidates(gridPlacements, seed, chunkX, chunkZ, ring);
+                    Map<Long, BlockPos> found = resolve(future, deadline, level, state, structure, candidates, starts);
+                    if (found.isEmpty()) continue;
+
+                    // Nearest structure of this ring first
+                    List<Map.Entry<Long, BlockPos>> sorted = new ArrayList<>(found.entrySet());
+                    sorted.sort(Comparator.comparingDouble(entry -> entry.getValue().distSqr(center)));
+                    BlockPos nearest = null;
+                    if (findUnexplored) {
+                        for (Map.Entry<Long, BlockPos> entry : sorted) {
+                            if (future.isDone()) return;
+                            ChunkPos chunkPos = new ChunkPos(entry.getKey());
+                            if (await(withChunk(level, chunkPos, chunk -> tryReference(level, structure, chunk)), deadline)) {
+                                nearest = entry.getValue();
+                                break;
+                            }
+                        }
+                    } else {
+                        nearest = sorted.getFirst().getValue();
+                    }
+                    if (nearest != null) {
+                        future.complete(nearest);
+                        return;
+                    }
+                }
+                future.complete(null);
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Clear all cached structure starts
+     */
+    public static void clearCache() {
+        STARTS.clear();
+    }
+
+    // Potential structure chunks on the edge of a ring of grid cells, this is pure math so it's safe off the main thread
+    private static List<Candidate> getCandidates(List<RandomSpreadStructurePlacement> placements, long seed, int chunkX, int chunkZ, int ring) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (RandomSpreadStructurePlacement placement : placements) {
+            int spacing = placement.spacing();
+            for (int dx = -ring; dx <= ring; dx++) {
+                boolean edgeX = dx == -ring || dx == ring;
+                for (int dz = -ring; dz <= ring; dz++) {
+                    if (!edgeX && dz != -ring && dz != ring) continue;
+                    candidates.add(new Candidate(placement.getPotentialStructureChunk(seed, chunkX + spacing * dx, chunkZ + spacing * dz), placement));
+                }
+            }
+        }
+        return candidates;
+    }
+
+    // Resolve candidates which aren't cached, by loading their chunks asynchronously and reading their starts on the main thread
+    private static Map<Long, BlockPos> resolve(CompletableFuture<BlockPos> future, long deadline, ServerLevel level, ChunkGeneratorStructureState state,
+                                               Holder.Reference<Structure> structure, List<Candidate> candidates, Map<Long, BlockPos> starts) throws Exception {
+        Map<Long, BlockPos> found = new ConcurrentHashMap<>();
+        List<Candidate> unknown = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            long key = candidate.pos().toLong();
+            BlockPos cached = starts.get(key);
+            if (cached == NO_STRUCTURE) continue;
+            if (cached != null) {
+                found.put(key, cached);
+            } else if (!candidate.placement().isStructureChunk(state, candidate.pos().x, candidate.pos().z)) {
+                // Skipped by the placement's frequency or exclusion zone, no need to load the chunk
+                cache(starts, key, NO_STRUCTURE);
+            } else {
+                unknown.add(candidate);
+            }
+        }
+
+        for (int i = 0; i < unknown.size(); i += MAX_BATCH_SIZE) {
+            if (future.isDone()) break;
+            List<CompletableFuture<Void>> batch = new ArrayList<>();
+            for (Candidate candidate : unknown.subList(i, Math.min(unknown.size(), i + MAX_BATCH_SIZE))) {
+                batch.add(withChunk(level, candidate.pos(), chunk -> {
+                    // Explored or not, the position of a structure start never changes
+                    BlockPos pos = getStart(level, structure, candidate, chunk);
+                    cache(starts, candidate.pos().toLong(), pos != null ? pos : NO_STRUCTURE);
+                    if (pos != null) found.put(candidate.pos().toLong(), pos);
+                    return null;
+                }));
+            }
+            await(CompletableFuture.allOf(batch.toArray(CompletableFuture[]::new)), deadline);
+        }
+        return found;
+    }
+
+    // Load a chunk without blocking the main thread, then use it on the main thread
+    private static <T> CompletableFuture<T> withChunk(ServerLevel level, ChunkPos chunkPos, Function<LevelChunk, T> action) {
+        // Loads are started on the main thread, and complete on it
+        return level.getServer().submit(() -> McUtils.getLevelChunkAsync(level.getWorld(), chunkPos.x, chunkPos.z).thenApply(action))
+            .thenCompose(Function.identity());
+    }
+
+    private static <T> T await(CompletableFuture<T> future, long deadline) throws Exception {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException exception) {
+            throw new TimeoutException("Structure search timed out while loading chunks");
+        }
+    }
+
+    @Nullable
+    private static BlockPos getStart(ServerLevel level, Holder.Reference<Structure> structure, Candidate candidate, ChunkAccess chunk) {
+        StructureStart start = level.structureManager().getStartForStructure(SectionPos.bottomOf(chunk), structure.value(), chunk);
+        if (start == null || !start.isValid()) return null;
+        return candidate.placement().getLocatePos(candidate.pos());
+    }
+
+    // Check if the structure starting in a chunk is unexplored, and if so mark it as explored, the same way Minecraft does
+    private static boolean tryReference(ServerLevel level, Holder.Reference<Structure> structure, ChunkAccess chunk) {
+        StructureManager structureManager = level.structureManager();
+        StructureStart start = structureManager.getStartForStructure(SectionPos.bottomOf(chunk), structure.value(), chunk);
+        if (start == null || !start.isValid() || !start.canBeReferenced()) return false;
+
+        structureManager.addReference(start);
+        return true;
+    }
+
+    private static void cache(Map<Long, BlockPos> starts, long key, BlockPos pos) {
+        if (starts.size() >= MAX_CACHE_SIZE) starts.clear();
+        starts.put(key, pos);
+    }
+
+    private record CacheKey(ResourceKey<Level> level, ResourceKey<Structure> structure) {
+    }
+
+    private record Candidate(ChunkPos pos, RandomSpreadStructurePlacement placement) {
+    }
+
+}
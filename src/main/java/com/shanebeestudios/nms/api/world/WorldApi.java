@@ -1,26 +1,33 @@
 package com.shanebeestudios.nms.api.world;
 
-import com.google.common.collect.Lists;
 import com.mojang.datafixers.util.Pair;
+import com.shanebeestudios.nms.api.server.ApiMetrics;
 import com.shanebeestudios.nms.api.util.McUtils;
-import net.minecraft.commands.arguments.blocks.BlockInput;
+import com.shanebeestudios.nms.api.world.biome.BiomeLocator;
+import com.shanebeestudios.nms.api.world.biome.BiomeSample;
+import com.shanebeestudios.nms.api.world.chunk.RegionPreloader;
+import com.shanebeestudios.nms.api.world.edit.BiomeWriter;
+import com.shanebeestudios.nms.api.world.edit.BlockWriter;
+import com.shanebeestudios.nms.api.world.edit.EditPlan;
+import com.shanebeestudios.nms.api.world.edit.EditTask;
+import com.shanebeestudios.nms.api.world.edit.FillResult;
+import com.shanebeestudios.nms.api.world.edit.StatePattern;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Holder;
 import net.minecraft.core.Registry;
 import net.minecraft.core.SectionPos;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.world.Clearable;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.biome.Biome;
-import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.level.block.state.properties.Property;
 import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.chunk.status.ChunkStatus;
 import net.minecraft.world.level.levelgen.structure.BoundingBox;
-import org.apache.commons.lang3.mutable.MutableInt;
 import org.bukkit.Location;
 import org.bukkit.NamespacedKey;
 import org.bukkit.World;
@@ -28,9 +35,11 @@ import org.bukkit.block.data.BlockData;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * API methods relating to {@link World Worlds}
@@ -53,19 +62,130 @@ public class WorldApi {
      */
     @NotNull
     public static NamespacedKey getBiome(@NotNull Location location) {
-        ServerLevel serverLevel = McUtils.getLevelPos(location).getFirst();
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            ServerLevel serverLevel = McUtils.getLevelPos(location).getFirst();
 
-        int x = location.getBlockX();
-        int y = location.getBlockY();
-        int z = location.getBlockZ();
+            int x = location.getBlockX();
+            int y = location.getBlockY();
+            int z = location.getBlockZ();
+
+            Biome biome = serverLevel.getNoiseBiome(x >> 2, y >> 2, z >> 2).value();
+            NamespacedKey key = McUtils.getBiomeKey(biome);
+            if (key == null) {
+                // This shouldn't happen, but safety feature
+                key = NamespacedKey.minecraft("plains");
+            }
+            return key;
+        } finally {
+            ApiMetrics.record("WorldApi#getBiome", sample);
+        }
+    }
 
-        Biome biome = serverLevel.getNoiseBiome(x >> 2, y >> 2, z >> 2).value();
-        ResourceLocation key = BIOME_REGISTRY.getKey(biome);
-        if (key == null) {
-            // This shouldn't happen, but safety feature
-            key = ResourceLocation.fromNamespaceAndPath("minecraft", "plains");
+    /**
+     * Get the biomes of every block within a box
+     * <p>Biomes are read directly from the biome palettes of the chunks in the box,
+     * and returned as palette indices with a small palette of keys.</p>
+     * <p>Chunks in the box will be loaded if they are not already.</p>
+     *
+     * @param world World to grab biomes from
+     * @param box   Box of blocks to grab biomes from
+     * @return Sample of biomes for each block
+     */
+    @NotNull
+    public static BiomeSample getBiomes(@NotNull World world, @NotNull org.bukkit.util.BoundingBox box) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return getBiomes(world, box, false);
+        } finally {
+            ApiMetrics.record("WorldApi#getBiomes", sample);
         }
-        return McUtils.getNamespacedKey(key);
+    }
+
+    /**
+     * Get the biomes of every 4x4x4 biome cell (quart) within a box
+     * <p>This is the resolution Minecraft stores biomes at,
+     * so this is the cheapest way to sample biomes of a large area.</p>
+     * <p>Chunks in the box will be loaded if they are not already.</p>
+     *
+     * @param world World to grab biomes from
+     * @param box   Box of blocks to grab biomes from
+     * @return Sample of biomes for each biome cell
+     */
+    @NotNull
+    public static BiomeSample getBiomesQuart(@NotNull World world, @NotNull org.bukkit.util.BoundingBox box) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return getBiomes(world, box, true);
+        } finally {
+            ApiMetrics.record("WorldApi#getBiomesQuart", sample);
+        }
+    }
+
+    /**
+     * Get the biomes of every block within a box, loading (or generating) chunks asynchronously first
+     * <p>See {@link #getBiomes(World, org.bukkit.util.BoundingBox)} for more details.</p>
+     * <p>NOTE: This must be called on the main thread.</p>
+     *
+     * @param world World to grab biomes from
+     * @param box   Box of blocks to grab biomes from
+     * @return Future of sample of biomes for each block, completed on the main thread
+     */
+    @NotNull
+    public static CompletableFuture<BiomeSample> getBiomesAsync(@NotNull World world, @NotNull org.bukkit.util.BoundingBox box) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return getBiomesAsync(world, box, false);
+        } finally {
+            ApiMetrics.record("WorldApi#getBiomesAsync", sample);
+        }
+    }
+
+    /**
+     * Get the biomes of every 4x4x4 biome cell (quart) within a box, loading (or generating) chunks asynchronously first
+     * <p>See {@link #getBiomesQuart(World, org.bukkit.util.BoundingBox)} for more details.</p>
+     * <p>NOTE: This must be called on the main thread.</p>
+     *
+     * @param world World to grab biomes from
+     * @param box   Box of blocks to grab biomes from
+     * @return Future of sample of biomes for each biome cell, completed on the main thread
+     */
+    @NotNull
+    public static CompletableFuture<BiomeSample> getBiomesQuartAsync(@NotNull World world, @NotNull org.bukkit.util.BoundingBox box) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return getBiomesAsync(world, box, true);
+        } finally {
+            ApiMetrics.record("WorldApi#getBiomesQuartAsync", sample);
+        }
+    }
+
+    private static BiomeSample getBiomes(World world, org.bukkit.util.BoundingBox box, boolean quart) {
+        ServerLevel level = McUtils.getServerLevel(world);
+        BoundingBox blocks = getBlockBox(box);
+        return BiomeSample.sample(level, blocks.minX(), blocks.minY(), blocks.minZ(), blocks.maxX(), blocks.maxY(), blocks.maxZ(), quart);
+    }
+
+    private static CompletableFuture<BiomeSample> getBiomesAsync(World world, org.bukkit.util.BoundingBox box, boolean quart) {
+        org.bukkit.util.BoundingBox copy = box.clone();
+        return whenLoaded(world, getBlockBox(copy), () -> getBiomes(world, copy, quart));
+    }
+
+    private static BoundingBox getBlockBox(org.bukkit.util.BoundingBox box) {
+        // Blocks which the box covers, a box of a single block has a max of that block + 1
+        int minX = Mth.floor(box.getMinX());
+        int minY = Mth.floor(box.getMinY());
+        int minZ = Mth.floor(box.getMinZ());
+        int maxX = Math.max(minX, Mth.ceil(box.getMaxX()) - 1);
+        int maxY = Math.max(minY, Mth.ceil(box.getMaxY()) - 1);
+        int maxZ = Math.max(minZ, Mth.ceil(box.getMaxZ()) - 1);
+        return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    private static <T> CompletableFuture<T> whenLoaded(World world, BoundingBox box, Supplier<T> action) {
+        return RegionPreloader.whenLoaded(world,
+            SectionPos.blockToSectionCoord(box.minX()), SectionPos.blockToSectionCoord(box.minZ()),
+            SectionPos.blockToSectionCoord(box.maxX()), SectionPos.blockToSectionCoord(box.maxZ()), action);
     }
 
     /**
@@ -76,15 +196,73 @@ public class WorldApi {
      * @param biomeKey Key of biome
      */
     public static void setBiome(@NotNull Location location, @NotNull NamespacedKey biomeKey) {
-        ServerLevel serverLevel = McUtils.getLevelPos(location).getFirst();
-        Holder.Reference<Biome> biome = McUtils.getHolderReference(BIOME_REGISTRY, biomeKey);
-        if (biome == null) return;
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            ServerLevel serverLevel = McUtils.getLevelPos(location).getFirst();
+            Holder.Reference<Biome> biome = McUtils.getHolderReference(BIOME_REGISTRY, biomeKey);
+            if (biome == null) return;
+
+            setBiome(serverLevel.getChunkAt(McUtils.getPos(location)), location, biome);
+        } finally {
+            ApiMetrics.record("WorldApi#setBiome", sample);
+        }
+    }
 
+    /**
+     * Set a biome at a location, including custom biomes, only if the chunk is already loaded.
+     * <p>Will not send biome updates to players.</p>
+     *
+     * @param location Location of biome to change
+     * @param biomeKey Key of biome
+     * @return True if the chunk was loaded and the biome was set
+     */
+    public static boolean setBiomeIfLoaded(@NotNull Location location, @NotNull NamespacedKey biomeKey) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            Holder.Reference<Biome> biome = McUtils.getHolderReference(BIOME_REGISTRY, biomeKey);
+            if (biome == null) return false;
+
+            LevelChunk chunk = McUtils.getLevelChunkIfLoaded(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+            if (chunk == null) return false;
+
+            setBiome(chunk, location, biome);
+            return true;
+        } finally {
+            ApiMetrics.record("WorldApi#setBiomeIfLoaded", sample);
+        }
+    }
+
+    /**
+     * Set a biome at a location, including custom biomes, loading (or generating) the chunk asynchronously if it isn't loaded.
+     * <p>Will not send biome updates to players.</p>
+     *
+     * @param location Location of biome to change
+     * @param biomeKey Key of biome
+     * @return Future completed on the main thread once the biome is set, with true if the biome exists
+     */
+    @NotNull
+    public static CompletableFuture<Boolean> setBiomeAsync(@NotNull Location location, @NotNull NamespacedKey biomeKey) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            Holder.Reference<Biome> biome = McUtils.getHolderReference(BIOME_REGISTRY, biomeKey);
+            if (biome == null) return CompletableFuture.completedFuture(false);
+
+            Location clone = location.clone();
+            return McUtils.getLevelChunkAsync(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4)
+                .thenApply(chunk -> {
+                    setBiome(chunk, clone, biome);
+                    return true;
+                });
+        } finally {
+            ApiMetrics.record("WorldApi#setBiomeAsync", sample);
+        }
+    }
+
+    private static void setBiome(LevelChunk chunk, Location location, Holder<Biome> biome) {
         int x = location.getBlockX();
         int y = location.getBlockY();
         int z = location.getBlockZ();
 
-        LevelChunk chunk = serverLevel.getChunkAt(new BlockPos(x, y, z));
         chunk.setBiome(x >> 2, y >> 2, z >> 2, biome);
         chunk.markUnsaved();
     }
@@ -96,49 +274,135 @@ public class WorldApi {
      * @param location  First corner
      * @param location2 Second corner
      * @param biomeKey  Key of biome
+     * @return Amount of biome cells which were changed
      */
-    public static void fillBiome(@NotNull Location location, @NotNull Location location2, @NotNull NamespacedKey biomeKey) {
-        fillBiome(location, location2, biomeKey, null);
+    public static int fillBiome(@NotNull Location location, @NotNull Location location2, @NotNull NamespacedKey biomeKey) {
+        return fillBiome(location, location2, biomeKey, null);
     }
 
     /**
      * Fill a Biome between 2 locations with an option to only replace a specific Biome.
-     * <p>Will also send biome updates to players.</p>
+     * <p>Only chunk sections which overlap the box are written,
+     * and biome updates are only sent to players for chunks which actually changed.</p>
+     * <p>Only chunks which are loaded will be filled.</p>
      *
      * @param location   First corner
      * @param location2  Second corner
      * @param biomeKey   Key of biome
      * @param replaceKey Key of biome to replace
+     * @return Amount of biome cells which were changed
      */
-    public static void fillBiome(@NotNull Location location, @NotNull Location location2, @NotNull NamespacedKey biomeKey, @Nullable NamespacedKey replaceKey) {
-        World world = location.getWorld();
-        if (world != location2.getWorld()) {
-            throw new IllegalArgumentException("Worlds for both locations do not match!");
+    public static int fillBiome(@NotNull Location location, @NotNull Location location2, @NotNull NamespacedKey biomeKey, @Nullable NamespacedKey replaceKey) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        BiomeWriter writer = null;
+        try {
+            World world = location.getWorld();
+            if (world != location2.getWorld()) {
+                throw new IllegalArgumentException("Worlds for both locations do not match!");
+            }
+
+            BoundingBox box = BoundingBox.fromCorners(McUtils.getPos(location), McUtils.getPos(location2));
+            writer = fillBiome(world, box, biomeKey, replaceKey);
+            return writer != null ? writer.getChangedCells() : 0;
+        } finally {
+            // Each biome cell is 4x4x4 blocks
+            long blocks = writer != null ? writer.getChangedCells() * 64L : 0;
+            int chunks = writer != null ? writer.getChangedChunks() : 0;
+            ApiMetrics.record("WorldApi#fillBiome", sample, blocks, chunks);
         }
+    }
 
-        BlockPos blockPos = McUtils.getPos(location);
-        BlockPos blockPos2 = McUtils.getPos(location2);
-        BoundingBox box = BoundingBox.fromCorners(blockPos, blockPos2);
+    @Nullable
+    private static BiomeWriter fillBiome(World world, BoundingBox box, NamespacedKey biomeKey, @Nullable NamespacedKey replaceKey) {
         ServerLevel level = McUtils.getServerLevel(world);
-
         Holder.Reference<Biome> biome = McUtils.getHolderReference(BIOME_REGISTRY, biomeKey);
         ResourceLocation replaceBiome = replaceKey != null ? McUtils.getResourceLocation(replaceKey) : null;
-        if (biome == null) return;
+        if (biome == null) return null;
 
-        List<ChunkAccess> chunkAccessList = new ArrayList<>();
+        BiomeWriter writer = new BiomeWriter(level, box, biome, replaceBiome != null ? biomeHolder -> biomeHolder.is(replaceBiome) : null);
         for (int z = SectionPos.blockToSectionCoord(box.minZ()); z <= SectionPos.blockToSectionCoord(box.maxZ()); ++z) {
             for (int x = SectionPos.blockToSectionCoord(box.minX()); x <= SectionPos.blockToSectionCoord(box.maxX()); ++x) {
                 ChunkAccess chunkAccess = level.getChunk(x, z, ChunkStatus.FULL, false);
-                if (chunkAccess != null) chunkAccessList.add(chunkAccess);
+                if (chunkAccess != null) writer.fill(chunkAccess);
+            }
+        }
+        writer.finish();
+        return writer;
+    }
+
+    /**
+     * Fill a Biome between 2 locations with an option to only replace a specific Biome,
+     * loading (or generating) chunks asynchronously first.
+     * <p>See {@link #fillBiome(Location, Location, NamespacedKey, NamespacedKey)} for more details.</p>
+     * <p>NOTE: This must be called on the main thread.</p>
+     *
+     * @param location   First corner
+     * @param location2  Second corner
+     * @param biomeKey   Key of biome
+     * @param replaceKey Key of biome to replace
+     * @return Future of the amount of biome cells which were changed, completed on the main thread
+     */
+    @NotNull
+    public static CompletableFuture<Integer> fillBiomeAsync(@NotNull Location location, @NotNull Location location2, @NotNull NamespacedKey biomeKey, @Nullable NamespacedKey replaceKey) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            World world = location.getWorld();
+            if (world != location2.getWorld()) {
+                throw new IllegalArgumentException("Worlds for both locations do not match!");
             }
+
+            BoundingBox box = BoundingBox.fromCorners(McUtils.getPos(location), McUtils.getPos(location2));
+            return whenLoaded(world, box, () -> {
+                BiomeWriter writer = fillBiome(world, box, biomeKey, replaceKey);
+                return writer != null ? writer.getChangedCells() : 0;
+            });
+        } finally {
+            ApiMetrics.record("WorldApi#fillBiomeAsync", sample);
         }
+    }
+
+    /**
+     * Fill a Biome between 2 locations over multiple ticks.
+     * <p>The region is split up into chunks, which are filled each tick until the per-tick budget is used up.
+     * Biome updates are sent to players each tick for chunks which changed.</p>
+     * <p>Only chunks which are loaded when reached will be filled.</p>
+     *
+     * @param location     First corner
+     * @param location2    Second corner
+     * @param biomeKey     Key of biome
+     * @param replaceKey   Key of biome to replace
+     * @param budgetMillis Max milliseconds to spend filling per tick
+     * @return Task of the fill, which completes with the amount of changed biome cells
+     */
+    @NotNull
+    public static EditTask<Integer> fillBiomeScheduled(@NotNull Location location, @NotNull Location location2, @NotNull NamespacedKey biomeKey, @Nullable NamespacedKey replaceKey, double budgetMillis) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            World world = location.getWorld();
+            if (world != location2.getWorld()) {
+                throw new IllegalArgumentException("Worlds for both locations do not match!");
+            }
+
+            BoundingBox box = BoundingBox.fromCorners(McUtils.getPos(location), McUtils.getPos(location2));
+            ServerLevel level = McUtils.getServerLevel(world);
 
-        for (ChunkAccess chunkAccess : chunkAccessList) {
-            chunkAccess.fillBiomesFromNoise(McUtils.getBiomeResolver(new MutableInt(0), chunkAccess, box, biome,
-                    biomeHolder -> replaceBiome == null || biomeHolder.is(replaceBiome)), level.getChunkSource().randomState().sampler());
-            chunkAccess.markUnsaved();
+            Holder.Reference<Biome> biome = McUtils.getHolderReference(BIOME_REGISTRY, biomeKey);
+            if (biome == null) {
+                throw new IllegalArgumentException("Unknown biome " + biomeKey);
+            }
+            ResourceLocation replaceBiome = replaceKey != null ? McUtils.getResourceLocation(replaceKey) : null;
+
+            BiomeWriter writer = new BiomeWriter(level, box, biome, replaceBiome != null ? biomeHolder -> biomeHolder.is(replaceBiome) : null);
+            return EditTask.schedule(box, budgetMillis, chunkPos -> {
+                ChunkAccess chunkAccess = level.getChunk(ChunkPos.getX(chunkPos), ChunkPos.getZ(chunkPos), ChunkStatus.FULL, false);
+                if (chunkAccess == null) return;
+
+                writer.fill(chunkAccess);
+                writer.resend();
+            }, writer::finish);
+        } finally {
+            ApiMetrics.record("WorldApi#fillBiomeScheduled", sample);
         }
-        level.getChunkSource().chunkMap.resendBiomesForChunks(chunkAccessList);
     }
 
     /**
@@ -165,16 +429,66 @@ public class WorldApi {
      */
     @Nullable
     public static Location locateBiome(@NotNull NamespacedKey biomeKey, @NotNull Location center, int radius, int step) {
-        Pair<ServerLevel, BlockPos> levelPos = McUtils.getLevelPos(center);
-        BlockPos blockPos = levelPos.getSecond();
-        ServerLevel level = levelPos.getFirst();
-        ResourceLocation resourceLocation = McUtils.getResourceLocation(biomeKey);
-        Pair<BlockPos, Holder<Biome>> closestBiome3d = level.findClosestBiome3d(holder ->
-                holder.is(resourceLocation), blockPos, radius, step, 64);
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            Pair<ServerLevel, BlockPos> levelPos = McUtils.getLevelPos(center);
+            BlockPos blockPos = levelPos.getSecond();
+            ServerLevel level = levelPos.getFirst();
+            ResourceLocation resourceLocation = McUtils.getResourceLocation(biomeKey);
+            Pair<BlockPos, Holder<Biome>> closestBiome3d = level.findClosestBiome3d(holder ->
+                    holder.is(resourceLocation), blockPos, radius, step, 64);
 
-        if (closestBiome3d == null) return null;
-        BlockPos biomePos = closestBiome3d.getFirst();
-        return McUtils.getLocation(biomePos, level);
+            if (closestBiome3d == null) return null;
+            BlockPos biomePos = closestBiome3d.getFirst();
+            return McUtils.getLocation(biomePos, level);
+        } finally {
+            ApiMetrics.record("WorldApi#locateBiome", sample);
+        }
+    }
+
+    /**
+     * Locate a biome in a radius of a location off the main thread
+     * <p>Defaults to 6400 radius with 8 steps and a timeout of 30 seconds.
+     * See {@link BiomeLocator} for more details.</p>
+     *
+     * @param biomeKey NamespacedKey of biome to find
+     * @param center   Where to look from
+     * @return Future of the location of the biome, completes with null if not found
+     */
+    @NotNull
+    public static CompletableFuture<Location> locateBiomeAsync(@NotNull NamespacedKey biomeKey, @NotNull Location center) {
+        return locateBiomeAsync(biomeKey, center, 6400, 8, Duration.ofSeconds(30));
+    }
+
+    /**
+     * Locate a biome in a radius of a location off the main thread
+     * <p>The returned future can be cancelled to stop the search.
+     * Results are cached, see {@link BiomeLocator} for more details.</p>
+     *
+     * @param biomeKey NamespacedKey of biome to find
+     * @param center   Where to look from
+     * @param radius   Max radius to search
+     * @param step     How many blocks to check in steps
+     * @param timeout  Max time to search for, the future completes with a TimeoutException when exceeded
+     * @return Future of the location of the biome, completes with null if not found
+     */
+    @NotNull
+    public static CompletableFuture<Location> locateBiomeAsync(@NotNull NamespacedKey biomeKey, @NotNull Location center, int radius, int step, @NotNull Duration timeout) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            Pair<ServerLevel, BlockPos> levelPos = McUtils.getLevelPos(center);
+            ServerLevel level = levelPos.getFirst();
+            ResourceLocation resourceLocation = McUtils.getResourceLocation(biomeKey);
+            CompletableFuture<BlockPos> future = BiomeLocator.locate(level, resourceLocation, levelPos.getSecond(), radius, step, timeout);
+            CompletableFuture<Location> locationFuture = future.thenApply(pos -> pos != null ? McUtils.getLocation(pos, level) : null);
+            // Cancelling the returned future should also stop the search
+            locationFuture.whenComplete((location, throwable) -> {
+                if (locationFuture.isCancelled()) future.cancel(false);
+            });
+            return locationFuture;
+        } finally {
+            ApiMetrics.record("WorldApi#locateBiomeAsync", sample);
+        }
     }
 
     /**
@@ -185,7 +499,29 @@ public class WorldApi {
      */
     @NotNull
     public static List<NamespacedKey> getBiomeKeys() {
-        return McUtils.getRegistryKeys(BIOME_REGISTRY);
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return McUtils.getRegistryKeys(BIOME_REGISTRY);
+        } finally {
+            ApiMetrics.record("WorldApi#getBiomeKeys", sample);
+        }
+    }
+
+    /**
+     * Get a list of available biomes which start with a prefix
+     * <p>Useful for tab completion, see {@link com.shanebeestudios.nms.api.util.RegistrySnapshot#search(String)}.</p>
+     *
+     * @param prefix Prefix of biome keys
+     * @return Unmodifiable list of matching biomes
+     */
+    @NotNull
+    public static List<NamespacedKey> getBiomeKeys(@NotNull String prefix) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return McUtils.getRegistryKeys(BIOME_REGISTRY, prefix);
+        } finally {
+            ApiMetrics.record("WorldApi#getBiomeKeys", sample);
+        }
     }
 
 
@@ -196,53 +532,212 @@ public class WorldApi {
      * @return True if location is within a village
      */
     public static boolean isWithinVillage(Location location) {
-        World world = location.getWorld();
-        if (world != null) {
-            ServerLevel serverLevel = McUtils.getServerLevel(world);
-            BlockPos blockPos = McUtils.getPos(location);
-            return serverLevel.isVillage(blockPos);
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            World world = location.getWorld();
+            if (world != null) {
+                ServerLevel serverLevel = McUtils.getServerLevel(world);
+                BlockPos blockPos = McUtils.getPos(location);
+                return serverLevel.isVillage(blockPos);
+            }
+            return false;
+        } finally {
+            ApiMetrics.record("WorldApi#isWithinVillage", sample);
         }
-        return false;
     }
 
     /**
      * Fill blocks within 2 locations
      * <p>Similar system to Minecraft's fill command</p>
+     * <p>Blocks are written directly into chunk sections, see {@link BlockWriter} for more details.</p>
      *
      * @param location  Corner 1
      * @param location2 Corner 2
      * @param data      BlockData to set
      * @param replace   BlockData to replace (can be null)
+     * @return Result of the fill
+     */
+    @NotNull
+    public static FillResult fillBlocks(@NotNull Location location, @NotNull Location location2, @NotNull BlockData data, @Nullable BlockData replace) {
+        return fillBlocks(location, location2, data, replace, true);
+    }
+
+    /**
+     * Fill blocks within 2 locations
+     * <p>Similar system to Minecraft's fill command</p>
+     * <p>Blocks are written directly into chunk sections, see {@link BlockWriter} for more details.</p>
+     *
+     * @param location        Corner 1
+     * @param location2       Corner 2
+     * @param data            BlockData to set
+     * @param replace         BlockData to replace (can be null)
+     * @param updateNeighbors Whether to update the neighbors of changed blocks
+     * @return Result of the fill
+     */
+    @NotNull
+    public static FillResult fillBlocks(@NotNull Location location, @NotNull Location location2, @NotNull BlockData data, @Nullable BlockData replace, boolean updateNeighbors) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        FillResult result = null;
+        try {
+            result = fillBlocks(location, location2, data, replace, updateNeighbors, true);
+            return result;
+        } finally {
+            ApiMetrics.record("WorldApi#fillBlocks", sample, result != null ? result.getChangedBlocks() : 0, result != null ? result.getChangedChunks() : 0);
+        }
+    }
+
+    /**
+     * Fill blocks within 2 locations, only in chunks which are already loaded
+     * <p>See {@link #fillBlocks(Location, Location, BlockData, BlockData, boolean)} for more details.</p>
+     *
+     * @param location        Corner 1
+     * @param location2       Corner 2
+     * @param data            BlockData to set
+     * @param replace         BlockData to replace (can be null)
+     * @param updateNeighbors Whether to update the neighbors of changed blocks
+     * @return Result of the fill
      */
-    public static void fillBlocks(@NotNull Location location, @NotNull Location location2, @NotNull BlockData data, @Nullable BlockData replace) {
+    @NotNull
+    public static FillResult fillBlocksIfLoaded(@NotNull Location location, @NotNull Location location2, @NotNull BlockData data, @Nullable BlockData replace, boolean updateNeighbors) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        FillResult result = null;
+        try {
+            result = fillBlocks(location, location2, data, replace, updateNeighbors, false);
+            return result;
+        } finally {
+            ApiMetrics.record("WorldApi#fillBlocksIfLoaded", sample, result != null ? result.getChangedBlocks() : 0, result != null ? result.getChangedChunks() : 0);
+        }
+    }
+
+    /**
+     * Fill blocks within 2 locations, loading (or generating) chunks asynchronously first
+     * <p>See {@link #fillBlocks(Location, Location, BlockData, BlockData, boolean)} for more details.</p>
+     * <p>NOTE: This must be called on the main thread.</p>
+     *
+     * @param location        Corner 1
+     * @param location2       Corner 2
+     * @param data            BlockData to set
+     * @param replace         BlockData to replace (can be null)
+     * @param updateNeighbors Whether to update the neighbors of changed blocks
+     * @return Future of the result of the fill, completed on the main thread
+     */
+    @NotNull
+    public static CompletableFuture<FillResult> fillBlocksAsync(@NotNull Location location, @NotNull Location location2, @NotNull BlockData data, @Nullable BlockData replace, boolean updateNeighbors) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            World world = location.getWorld();
+            if (world != location2.getWorld()) {
+                throw new IllegalArgumentException("Worlds for both locations need to match.");
+            }
+
+            Location corner = location.clone();
+            Location corner2 = location2.clone();
+            BoundingBox box = BoundingBox.fromCorners(McUtils.getPos(location), McUtils.getPos(location2));
+            return whenLoaded(world, box, () -> fillBlocks(corner, corner2, data, replace, updateNeighbors, true));
+        } finally {
+            ApiMetrics.record("WorldApi#fillBlocksAsync", sample);
+        }
+    }
+
+    private static FillResult fillBlocks(Location location, Location location2, BlockData data, @Nullable BlockData replace, boolean updateNeighbors, boolean loadChunks) {
         World world = location.getWorld();
         if (world != location2.getWorld()) {
             throw new IllegalArgumentException("Worlds for both locations need to match.");
         }
 
-        BlockPos blockPos = McUtils.getPos(location);
-        BlockPos blockPos2 = McUtils.getPos(location2);
-
+        BoundingBox box = BoundingBox.fromCorners(McUtils.getPos(location), McUtils.getPos(location2));
         ServerLevel level = McUtils.getServerLevel(world);
         BlockState changeTo = McUtils.getBlockStateFromData(data);
-
-        Set<Property<?>> properties = Set.of(changeTo.getProperties().toArray(new Property<?>[0]));
-        BlockInput changeInput = new BlockInput(changeTo, properties, null);
         BlockState toReplace = replace != null ? McUtils.getBlockStateFromData(replace) : null;
+        Predicate<BlockState> filter = toReplace != null ? state -> state.is(toReplace.getBlock()) : null;
 
-        List<BlockPos> replacedBlocks = Lists.newArrayList();
-        for (BlockPos pos : BlockPos.betweenClosed(blockPos, blockPos2)) {
-            if (toReplace == null || level.getBlockState(pos).getBlock() == toReplace.getBlock()) {
-                BlockEntity blockEntity = level.getBlockEntity(pos);
-                Clearable.tryClear(blockEntity);
-                if (changeInput.place(level, pos, 2)) {
-                    replacedBlocks.add(pos.immutable());
-                }
+        BlockWriter writer = new BlockWriter(level, updateNeighbors);
+        for (int z = SectionPos.blockToSectionCoord(box.minZ()); z <= SectionPos.blockToSectionCoord(box.maxZ()); ++z) {
+            for (int x = SectionPos.blockToSectionCoord(box.minX()); x <= SectionPos.blockToSectionCoord(box.maxX()); ++x) {
+                LevelChunk chunk = loadChunks ? level.getChunk(x, z) : level.getChunkSource().getChunkNow(x, z);
+                if (chunk != null) writer.fill(chunk, box, changeTo, filter);
+            }
+        }
+        return writer.finish();
+    }
+
+    /**
+     * Fill blocks within 2 locations over multiple ticks
+     * <p>The region is split up into chunks, which are filled each tick until the per-tick budget is used up.
+     * Blocks are written directly into chunk sections, see {@link BlockWriter} for more details.</p>
+     * <p>Chunks which aren't loaded are loaded (or generated) asynchronously ahead of time,
+     * the fill waits for them instead of loading them within the per-tick budget.</p>
+     *
+     * @param location        Corner 1
+     * @param location2       Corner 2
+     * @param data            BlockData to set
+     * @param replace         BlockData to replace (can be null)
+     * @param updateNeighbors Whether to update the neighbors of changed blocks
+     * @param budgetMillis    Max milliseconds to spend filling per tick
+     * @return Task of the fill, which completes with the result of the fill
+     */
+    @NotNull
+    public static EditTask<FillResult> fillBlocksScheduled(@NotNull Location location, @NotNull Location location2, @NotNull BlockData data, @Nullable BlockData replace, boolean updateNeighbors, double budgetMillis) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            World world = location.getWorld();
+            if (world != location2.getWorld()) {
+                throw new IllegalArgumentException("Worlds for both locations need to match.");
             }
+
+            BoundingBox box = BoundingBox.fromCorners(McUtils.getPos(location), McUtils.getPos(location2));
+            ServerLevel level = McUtils.getServerLevel(world);
+            BlockState changeTo = McUtils.getBlockStateFromData(data);
+            BlockState toReplace = replace != null ? McUtils.getBlockStateFromData(replace) : null;
+            Predicate<BlockState> filter = toReplace != null ? state -> state.is(toReplace.getBlock()) : null;
+
+            BlockWriter writer = new BlockWriter(level, updateNeighbors);
+            // Chunks are loaded asynchronously ahead of each unit, so filling never loads a chunk within the budget
+            return EditTask.schedule(world, box, budgetMillis, chunkPos -> {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(chunkPos), ChunkPos.getZ(chunkPos));
+                if (chunk == null) return;
+
+                writer.fill(chunk, box, changeTo, filter);
+                writer.updateNeighbors();
+            }, writer::finish);
+        } finally {
+            ApiMetrics.record("WorldApi#fillBlocksScheduled", sample);
         }
+    }
+
+    /**
+     * Fill blocks within 2 locations, planning the fill off the main thread
+     * <p>The blocks of the region are copied on the main thread, then the replace check is evaluated
+     * in parallel off the main thread. Only the blocks which will actually change are then
+     * written back on the main thread, see {@link EditPlan} for more details.</p>
+     * <p>NOTE: This must be called on the main thread.</p>
+     *
+     * @param location        Corner 1
+     * @param location2       Corner 2
+     * @param data            BlockData to set
+     * @param replace         BlockData to replace (can be null)
+     * @param updateNeighbors Whether to update the neighbors of changed blocks
+     * @return Future of the result of the fill, completed on the main thread
+     */
+    @NotNull
+    public static CompletableFuture<FillResult> fillBlocksPlanned(@NotNull Location location, @NotNull Location location2, @NotNull BlockData data, @Nullable BlockData replace, boolean updateNeighbors) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            World world = location.getWorld();
+            if (world != location2.getWorld()) {
+                throw new IllegalArgumentException("Worlds for both locations need to match.");
+            }
+
+            BoundingBox box = BoundingBox.fromCorners(McUtils.getPos(location), McUtils.getPos(location2));
+            ServerLevel level = McUtils.getServerLevel(world);
+            BlockState changeTo = McUtils.getBlockStateFromData(data);
+            BlockState toReplace = replace != null ? McUtils.getBlockStateFromData(replace) : null;
+            Predicate<BlockState> mask = toReplace != null ? state -> state.is(toReplace.getBlock()) : null;
 
-        for (BlockPos pos : replacedBlocks) {
-            level.blockUpdated(pos, level.getBlockState(pos).getBlock());
+            return EditPlan.create(level, box, mask, StatePattern.of(changeTo))
+                .thenApplyAsync(plan -> plan.apply(updateNeighbors), MinecraftServer.getServer());
+        } finally {
+            ApiMetrics.record("WorldApi#fillBlocksPlanned", sample);
         }
     }
 
@@ -1,8 +1,9 @@
 package com.shanebeestudios.nms.api.world.biome;
 
+import com.shanebeestudios.nms.api.util.FieldAccessor;
 import com.shanebeestudios.nms.api.util.McUtils;
-import com.shanebeestudios.nms.api.util.ReflectionUtils;
 import net.minecraft.core.Holder;
+import net.minecraft.core.MappedRegistry;
 import net.minecraft.core.Registry;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.resources.ResourceKey;
@@ -12,10 +13,16 @@ import net.minecraft.world.level.biome.BiomeGenerationSettings;
 import net.minecraft.world.level.biome.BiomeSpecialEffects;
 import net.minecraft.world.level.biome.BiomeSpecialEffects.GrassColorModifier;
 import net.minecraft.world.level.biome.MobSpawnSettings;
+import org.bukkit.Bukkit;
 import org.bukkit.Color;
 import org.bukkit.NamespacedKey;
 
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Create/Register a new Biome
@@ -23,6 +30,9 @@ import java.util.IdentityHashMap;
 @SuppressWarnings("unused")
 public class BiomeDefinition {
 
+    private static final VarHandle FROZEN = FieldAccessor.of(MappedRegistry.class, "frozen", Boolean.class).getVarHandle();
+    private static final VarHandle INTRUSIVE_HOLDERS = FieldAccessor.of(MappedRegistry.class, "unregisteredIntrusiveHolders", Map.class).getVarHandle();
+
     private final ResourceLocation key;
     private final Biome.BiomeBuilder biomeBuilder;
     private BiomeSpecialEffects.Builder specialEffects = null;
@@ -100,8 +110,59 @@ public class BiomeDefinition {
         registerAndReturn();
     }
 
-    @SuppressWarnings({"UnusedReturnValue", "ReplaceNullCheck"})
+    @SuppressWarnings("UnusedReturnValue")
     public Biome registerAndReturn() {
+        return registerAll(List.of(this)).getFirst();
+    }
+
+    /**
+     * Register many biome definitions at once
+     * <p>The biome registry is only unfrozen and frozen once for the whole batch,
+     * which is much faster than registering each definition on its own.</p>
+     *
+     * @param definitions Definitions to register
+     * @return Registered biomes, in the same order as the definitions
+     */
+    @SuppressWarnings({"UnusedReturnValue", "unchecked"})
+    public static List<Biome> registerAll(Collection<BiomeDefinition> definitions) {
+        long start = System.nanoTime();
+        List<Biome> biomes = new ArrayList<>(definitions.size());
+        for (BiomeDefinition definition : definitions) {
+            biomes.add(definition.build());
+        }
+        long built = System.nanoTime();
+
+        Registry<Biome> biomeRegistry = McUtils.getRegistry(Registries.BIOME);
+        MappedRegistry<Biome> mappedRegistry = (MappedRegistry<Biome>) biomeRegistry;
+        FROZEN.set(mappedRegistry, false);
+        INTRUSIVE_HOLDERS.set(mappedRegistry, (Map<?, ?>) new IdentityHashMap<>());
+        boolean registered = false;
+        try {
+            int i = 0;
+            for (BiomeDefinition definition : definitions) {
+                Biome biome = biomes.get(i++);
+                Holder.Reference<Biome> holder = biomeRegistry.createIntrusiveHolder(biome);
+                ResourceKey<Biome> resourceKey = ResourceKey.create(Registries.BIOME, definition.key);
+                Registry.register(biomeRegistry, resourceKey, holder.value());
+            }
+            registered = true;
+        } finally {
+            // Never leave the registry unfrozen, freezing fails on holders which weren't registered so drop those first
+            if (!registered) INTRUSIVE_HOLDERS.set(mappedRegistry, (Map<?, ?>) null);
+            biomeRegistry.freeze();
+            McUtils.invalidateKeyCaches();
+        }
+
+        if (definitions.size() > 1) {
+            long end = System.nanoTime();
+            Bukkit.getLogger().info(String.format("[NMS-API] Registered %s biomes in %.2fms (build: %.2fms, register: %.2fms)",
+                biomes.size(), (end - start) / 1_000_000.0, (built - start) / 1_000_000.0, (end - built) / 1_000_000.0));
+        }
+        return biomes;
+    }
+
+    @SuppressWarnings("ReplaceNullCheck")
+    private Biome build() {
         if (this.specialEffects != null) {
             this.biomeBuilder.specialEffects(this.specialEffects.build());
         } else {
@@ -116,15 +177,7 @@ public class BiomeDefinition {
 
         this.biomeBuilder.generationSettings((new BiomeGenerationSettings.PlainBuilder()).build());
         this.biomeBuilder.mobSpawnSettings((new MobSpawnSettings.Builder()).build());
-        Biome biome = this.biomeBuilder.build();
-        Registry<Biome> biomeRegistry = McUtils.getRegistry(Registries.BIOME);
-        ReflectionUtils.setField("frozen", biomeRegistry, false);
-        ReflectionUtils.setField("unregisteredIntrusiveHolders", biomeRegistry, new IdentityHashMap<>());
-        Holder.Reference<Biome> holder = biomeRegistry.createIntrusiveHolder(biome);
-        ResourceKey<Biome> resourceKey = ResourceKey.create(Registries.BIOME, this.key);
-        Registry.register(biomeRegistry, resourceKey, (Biome) holder.value());
-        biomeRegistry.freeze();
-        return biome;
+        return this.biomeBuilder.build();
     }
 
     public enum GrassModifier {
@@ -0,0 +1,200 @@
+package com.shanebeestudios.nms.api.world.biome;
+
+import com.shanebeestudios.nms.api.util.MathUtils;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.QuartPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.BiomeSource;
+import net.minecraft.world.level.biome.Climate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Locates biomes off the main thread
+ * <p>Searches sample the level's {@link BiomeSource} with its climate sampler,
+ * spiralling outwards from the center, the same way Minecraft's locate command does.
+ * This means biomes are located as they would generate, changes made to biomes in the world are not taken into account.</p>
+ * <p>Results are cached per level, biome and coarse grid cell of the center,
+ * so repeated searches from around the same area are answered without searching again.
+ * A search which found nothing is only reused for searches whose area lies entirely within the area searched before,
+ * and a found position is only reused when it is still provably the closest position to the new center.</p>
+ */
+@SuppressWarnings("unused")
+public class BiomeLocator {
+
+    private BiomeLocator() {
+    }
+
+    private static final int VERTICAL_STEP = 64;
+    private static final int CACHE_CELL_SHIFT = 9; // 512 blocks
+    private static final int MAX_CACHE_SIZE = 4096;
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "NMS-API Biome Locator #" + THREAD_ID.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Map<CacheKey, CachedResult> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Locate the closest position of a biome
+     * <p>The returned future can be cancelled to stop the search.
+     * If the search takes longer than the timeout, the future completes with a {@link TimeoutException}.</p>
+     * <p>NOTE: This should be called on the main thread, the returned future completes off the main thread.</p>
+     *
+     * @param level   Level to search in
+     * @param biome   Key of biome to find
+     * @param center  Position to search from
+     * @param radius  Max radius to search
+     * @param step    How many blocks to check in steps
+     * @param timeout Max time to search for
+     * @return Future of the position of the biome, completes with null if not found
+     */
+    @NotNull
+    public static CompletableFuture<BlockPos> locate(@NotNull ServerLevel level, @NotNull ResourceLocation biome, @NotNull BlockPos center, int radius, int step, @NotNull Duration timeout) {
+        CacheKey cacheKey = new CacheKey(level.dimension(), biome, center.getX() >> CACHE_CELL_SHIFT, center.getZ() >> CACHE_CELL_SHIFT);
+        CachedResult cached = CACHE.get(cacheKey);
+        if (cached != null && cached.isValidFor(center, radius, step)) {
+            return CompletableFuture.completedFuture(cached.pos);
+        }
+
+        BiomeSource biomeSource = level.getChunkSource().getGenerator().getBiomeSource();
+        Climate.Sampler sampler = level.getChunkSource().randomState().sampler();
+        int minY = level.getMinY() + 1;
+        int maxY = level.getMinY() + level.getHeight();
+
+        CompletableFuture<BlockPos> future = new CompletableFuture<>();
+        // Don't bother searching if this biome can't generate in this level
+        if (biomeSource.possibleBiomes().stream().noneMatch(holder -> holder.is(biome))) {
+            cache(cacheKey, new CachedResult(null, center, Integer.MAX_VALUE, 1));
+            future.complete(null);
+            return future;
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        EXECUTOR.execute(() -> {
+            try {
+                BlockPos pos = search(future, deadline, biomeSource, sampler, biome, center, radius, Math.max(1, step), minY, maxY);
+                // Search was cancelled or timed out
+                if (future.isDone()) return;
+
+                cache(cacheKey, new CachedResult(pos, center, radius, Math.max(1, step)));
+                future.complete(pos);
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Clear all cached results
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    @Nullable
+    private static BlockPos search(CompletableFuture<BlockPos> future, long deadline, BiomeSource biomeSource, Climate.Sampler sampler,
+                                   ResourceLocation biome, BlockPos center, int radius, int step, int minY, int maxY) {
+        int[] heights = getHeights(center.getY(), minY, maxY);
+        int rings = radius / step;
+        for (int ring = 0; ring <= rings; ring++) {
+            if (future.isDone()) return null;
+            if (System.nanoTime() > deadline) {
+                future.completeExceptionally(new TimeoutException("Biome search timed out after " + ring + " rings"));
+                return null;
+            }
+
+            // Walk the edge of a square ring
+            for (int dx = -ring; dx <= ring; dx++) {
+                int dzStep = (dx == -ring || dx == ring) ? 1 : ring * 2;
+                for (int dz = -ring; dz <= ring; dz += Math.max(1, dzStep)) {
+                    int x = center.getX() + dx * step;
+                    int z = center.getZ() + dz * step;
+                    for (int y : heights) {
+                        Holder<Biome> holder = biomeSource.getNoiseBiome(QuartPos.fromBlock(x), QuartPos.fromBlock(y), QuartPos.fromBlock(z), sampler);
+                        if (holder.is(biome)) return new BlockPos(x, y, z);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    // Heights to check, ordered by distance from the center
+    private static int[] getHeights(int centerY, int minY, int maxY) {
+        int y = MathUtils.clamp(centerY, minY, maxY);
+        int above = (maxY - y) / VERTICAL_STEP;
+        int below = (y - minY) / VERTICAL_STEP;
+        int[] heights = new int[1 + above + below];
+        int i = 0;
+        heights[i++] = y;
+        for (int offset = 1; offset <= Math.max(above, below); offset++) {
+            if (offset <= above) heights[i++] = y + offset * VERTICAL_STEP;
+            if (offset <= below) heights[i++] = y - offset * VERTICAL_STEP;
+        }
+        return heights;
+    }
+
+    private static void cache(CacheKey key, CachedResult result) {
+        if (CACHE.size() >= MAX_CACHE_SIZE) CACHE.clear();
+        CACHE.put(key, result);
+    }
+
+    private record CacheKey(ResourceKey<Level> level, ResourceLocation biome, int cellX, int cellZ) {
+    }
+
+    private static final class CachedResult {
+
+        private final BlockPos pos;
+        private final BlockPos center;
+        private final int radius;
+        private final int step;
+
+        private CachedResult(@Nullable BlockPos pos, @NotNull BlockPos center, int radius, int step) {
+            this.pos = pos;
+            this.center = center;
+            this.radius = radius;
+            this.step = step;
+        }
+
+        private boolean isValidFor(BlockPos center, int radius, int step) {
+            if (this.pos == null) {
+                // Nothing was found within the cached search area, only trust that for searches
+                // which lie entirely inside of it and don't sample more finely
+                if (Math.max(1, step) < this.step) return false;
+                return distance(this.center, center) + radius <= this.radius;
+            }
+            // Everything closer to the cached center than the found position was searched without a match,
+            // so the found position is only the closest to the new center if all positions closer to it were searched as well
+            if (Math.max(1, step) < this.step) return false;
+            long distance = distance(this.pos, center);
+            if (distance > radius) return false;
+            return distance(this.center, center) + distance <= distance(this.pos, this.center);
+        }
+
+        // Searches walk square rings, so distance is the largest distance on either axis
+        private static long distance(BlockPos pos, BlockPos other) {
+            long dx = Math.abs((long) pos.getX() - other.getX());
+            long dz = Math.abs((long) pos.getZ() - other.getZ());
+            return Math.max(dx, dz);
+        }
+
+    }
+
+}
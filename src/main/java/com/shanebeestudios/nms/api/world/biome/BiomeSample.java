@@ -0,0 +1,251 @@
+package com.shanebeestudios.nms.api.world.biome;
+
+import com.shanebeestudios.nms.api.util.MathUtils;
+import com.shanebeestudios.nms.api.util.McUtils;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.core.Holder;
+import net.minecraft.core.QuartPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.PalettedContainerRO;
+import org.bukkit.NamespacedKey;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bulk sample of biomes within a region
+ * <p>Biomes are stored as an array of indices into a small palette of biome keys.
+ * Indices are ordered by Y, then Z, then X (the same order Minecraft uses).</p>
+ * <p>Depending on how the sample was taken, each index represents either a single block
+ * or a 4x4x4 biome cell (quart), see {@link #getScale()}.</p>
+ */
+@SuppressWarnings("unused")
+public class BiomeSample {
+
+    /**
+     * Sample the biomes of a region directly from the biome palettes of its chunks
+     * <p>Chunks in the region will be loaded if they are not already.</p>
+     *
+     * @param level Level to sample
+     * @param minX  Min block X
+     * @param minY  Min block Y
+     * @param minZ  Min block Z
+     * @param maxX  Max block X (inclusive)
+     * @param maxY  Max block Y (inclusive)
+     * @param maxZ  Max block Z (inclusive)
+     * @param quart Whether to sample once per 4x4x4 biome cell rather than once per block
+     * @return Sample of biomes
+     */
+    @NotNull
+    public static BiomeSample sample(@NotNull ServerLevel level, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, boolean quart) {
+        int minQX = QuartPos.fromBlock(minX);
+        int minQY = QuartPos.fromBlock(minY);
+        int minQZ = QuartPos.fromBlock(minZ);
+        int sizeQX = QuartPos.fromBlock(maxX) - minQX + 1;
+        int sizeQY = QuartPos.fromBlock(maxY) - minQY + 1;
+        int sizeQZ = QuartPos.fromBlock(maxZ) - minQZ + 1;
+
+        int levelMinQY = QuartPos.fromBlock(level.getMinY());
+        int levelMaxQY = QuartPos.fromBlock(level.getMinY() + level.getHeight() - 1);
+
+        List<NamespacedKey> palette = new ArrayList<>();
+        Reference2IntOpenHashMap<Holder<Biome>> paletteIds = new Reference2IntOpenHashMap<>();
+        paletteIds.defaultReturnValue(-1);
+
+        // Sample each quart once, column by column, so each chunk is only looked up once per column
+        int[] quarts = new int[sizeQX * sizeQY * sizeQZ];
+        for (int qz = 0; qz < sizeQZ; qz++) {
+            int worldQZ = minQZ + qz;
+            for (int qx = 0; qx < sizeQX; qx++) {
+                int worldQX = minQX + qx;
+                LevelChunk chunk = level.getChunk(SectionPos.blockToSectionCoord(QuartPos.toBlock(worldQX)), SectionPos.blockToSectionCoord(QuartPos.toBlock(worldQZ)));
+                for (int qy = 0; qy < sizeQY; qy++) {
+                    // Clamp to the height of the level, same as Level#getNoiseBiome
+                    int worldQY = MathUtils.clamp(minQY + qy, levelMinQY, levelMaxQY);
+                    PalettedContainerRO<Holder<Biome>> biomes = chunk.getSection(level.getSectionIndex(QuartPos.toBlock(worldQY))).getBiomes();
+                    Holder<Biome> biome = biomes.get(worldQX & 3, worldQY & 3, worldQZ & 3);
+
+                    int id = paletteIds.getInt(biome);
+                    if (id == -1) {
+                        id = palette.size();
+                        palette.add(getKey(biome));
+                        paletteIds.put(biome, id);
+                    }
+                    quarts[(qy * sizeQZ + qz) * sizeQX + qx] = id;
+                }
+            }
+        }
+
+        if (quart) {
+            return new BiomeSample(minQX, minQY, minQZ, sizeQX, sizeQY, sizeQZ, 4, quarts, palette);
+        }
+
+        // Expand quarts to blocks
+        int sizeX = maxX - minX + 1;
+        int sizeY = maxY - minY + 1;
+        int sizeZ = maxZ - minZ + 1;
+        int[] blocks = new int[sizeX * sizeY * sizeZ];
+        int i = 0;
+        for (int y = 0; y < sizeY; y++) {
+            int qy = QuartPos.fromBlock(minY + y) - minQY;
+            for (int z = 0; z < sizeZ; z++) {
+                int qz = QuartPos.fromBlock(minZ + z) - minQZ;
+                int row = (qy * sizeQZ + qz) * sizeQX;
+                for (int x = 0; x < sizeX; x++) {
+                    blocks[i++] = quarts[row + QuartPos.fromBlock(minX + x) - minQX];
+                }
+            }
+        }
+        return new BiomeSample(minX, minY, minZ, sizeX, sizeY, sizeZ, 1, blocks, palette);
+    }
+
+    private static NamespacedKey getKey(Holder<Biome> biome) {
+        ResourceLocation location = biome.unwrapKey().map(ResourceKey::location)
+            // This shouldn't happen, but safety feature
+            .orElseGet(() -> ResourceLocation.fromNamespaceAndPath("minecraft", "plains"));
+        return McUtils.getNamespacedKey(location);
+    }
+
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final int scale;
+    private final int[] indices;
+    private final List<NamespacedKey> palette;
+
+    private BiomeSample(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ, int scale, int[] indices, List<NamespacedKey> palette) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.scale = scale;
+        this.indices = indices;
+        this.palette = Collections.unmodifiableList(palette);
+    }
+
+    /**
+     * Get the scale of this sample
+     *
+     * @return 1 if each index is a block, 4 if each index is a 4x4x4 biome cell
+     */
+    public int getScale() {
+        return this.scale;
+    }
+
+    /**
+     * Get the min X of this sample (in units of {@link #getScale() scale})
+     *
+     * @return Min X of sample
+     */
+    public int getMinX() {
+        return this.minX;
+    }
+
+    /**
+     * Get the min Y of this sample (in units of {@link #getScale() scale})
+     *
+     * @return Min Y of sample
+     */
+    public int getMinY() {
+        return this.minY;
+    }
+
+    /**
+     * Get the min Z of this sample (in units of {@link #getScale() scale})
+     *
+     * @return Min Z of sample
+     */
+    public int getMinZ() {
+        return this.minZ;
+    }
+
+    /**
+     * Get the size of this sample along the X axis
+     *
+     * @return Size along X axis
+     */
+    public int getSizeX() {
+        return this.sizeX;
+    }
+
+    /**
+     * Get the size of this sample along the Y axis
+     *
+     * @return Size along Y axis
+     */
+    public int getSizeY() {
+        return this.sizeY;
+    }
+
+    /**
+     * Get the size of this sample along the Z axis
+     *
+     * @return Size along Z axis
+     */
+    public int getSizeZ() {
+        return this.sizeZ;
+    }
+
+    /**
+     * Get the palette of biome keys used by this sample
+     *
+     * @return Unmodifiable palette of biome keys
+     */
+    @NotNull
+    public List<NamespacedKey> getPalette() {
+        return this.palette;
+    }
+
+    /**
+     * Get the backing array of palette indices
+     * <p>This is not copied, so do not modify it.</p>
+     *
+     * @return Array of palette indices
+     */
+    public int[] getIndices() {
+        return this.indices;
+    }
+
+    /**
+     * Get the palette index at an offset from the min corner of this sample
+     *
+     * @param x X offset (in units of {@link #getScale() scale})
+     * @param y Y offset (in units of {@link #getScale() scale})
+     * @param z Z offset (in units of {@link #getScale() scale})
+     * @return Palette index at offset
+     */
+    public int getIndex(int x, int y, int z) {
+        return this.indices[(y * this.sizeZ + z) * this.sizeX + x];
+    }
+
+    /**
+     * Get the key of a biome at an offset from the min corner of this sample
+     *
+     * @param x X offset (in units of {@link #getScale() scale})
+     * @param y Y offset (in units of {@link #getScale() scale})
+     * @param z Z offset (in units of {@link #getScale() scale})
+     * @return Key of biome at offset
+     */
+    @NotNull
+    public NamespacedKey getBiome(int x, int y, int z) {
+        return this.palette.get(getIndex(x, y, z));
+    }
+
+    @Override
+    public String toString() {
+        return "BiomeSample{size=" + this.sizeX + "x" + this.sizeY + "x" + this.sizeZ + ",scale=" + this.scale + ",palette=" + this.palette + "}";
+    }
+
+}
@@ -1,8 +1,8 @@
 package com.shanebeestudios.nms.api.world.block;
 
 import com.mojang.datafixers.util.Pair;
+import com.shanebeestudios.nms.api.server.ApiMetrics;
 import com.shanebeestudios.nms.api.util.McUtils;
-import com.shanebeestudios.nms.api.world.item.ItemApi;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.server.level.ServerLevel;
@@ -17,6 +17,7 @@ import org.bukkit.Location;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.data.BlockData;
+import org.bukkit.craftbukkit.inventory.CraftItemStack;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
@@ -58,10 +59,19 @@ public class BlockApi {
      */
     @Nullable
     public static Pair<Location, BlockData> getForPlacement(@NotNull Player player, int maxDistance, ItemStack itemStack) {
-        ServerPlayer serverPlayer = McUtils.getServerPlayer(player);
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return getForPlacement(McUtils.getServerPlayer(player), maxDistance, itemStack);
+        } finally {
+            ApiMetrics.record("BlockApi#getForPlacement", sample);
+        }
+    }
+
+    @Nullable
+    private static Pair<Location, BlockData> getForPlacement(ServerPlayer serverPlayer, int maxDistance, @Nullable ItemStack itemStack) {
         if (itemStack == null) return null;
-        
-        net.minecraft.world.item.ItemStack handItem = ItemApi.getNMSItemStack(itemStack);
+
+        net.minecraft.world.item.ItemStack handItem = McUtils.getNMSItemStack(itemStack);
         if (handItem.getItem() instanceof BlockItem blockItem) {
             //pick range = (survival=4.5,creative=5), UNSURE = 1, fluid = false
             BlockHitResult blockHitResult = (BlockHitResult) serverPlayer.pick(maxDistance, 1, false);
@@ -85,9 +95,14 @@ public class BlockApi {
      */
     @Nullable
     public static BlockData getBlockDataForPlacement(@NotNull Player player, int maxDistance) {
-        Pair<Location, BlockData> forPlacement = getForPlacement(player, maxDistance);
-        if (forPlacement != null) return forPlacement.getSecond();
-        return null;
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            Pair<Location, BlockData> forPlacement = getForPlacement(McUtils.getServerPlayer(player), maxDistance, player.getInventory().getItemInMainHand());
+            if (forPlacement != null) return forPlacement.getSecond();
+            return null;
+        } finally {
+            ApiMetrics.record("BlockApi#getBlockDataForPlacement", sample);
+        }
     }
 
     /**
@@ -100,9 +115,14 @@ public class BlockApi {
      */
     @Nullable
     public static BlockData getBlockDataForPlacement(@NotNull Player player, int maxDistance, ItemStack itemStack) {
-        Pair<Location, BlockData> forPlacement = getForPlacement(player, maxDistance, itemStack);
-        if (forPlacement != null) return forPlacement.getSecond();
-        return null;
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            Pair<Location, BlockData> forPlacement = getForPlacement(McUtils.getServerPlayer(player), maxDistance, itemStack);
+            if (forPlacement != null) return forPlacement.getSecond();
+            return null;
+        } finally {
+            ApiMetrics.record("BlockApi#getBlockDataForPlacement", sample);
+        }
     }
 
     /**
@@ -132,14 +152,19 @@ public class BlockApi {
      */
     @Nullable
     public static BlockData getBlockDataForPlacement(@NotNull Player player, @NotNull Block hitBlock, @NotNull Location hitLocation, @NotNull BlockFace face, @NotNull ItemStack itemStack) {
-        ServerPlayer serverPlayer = McUtils.getServerPlayer(player);
-        BlockPos hitTarget = McUtils.getPos(hitBlock.getLocation());
-        net.minecraft.world.item.ItemStack nmsItemStack = ItemApi.getNMSItemStackCopy(itemStack);
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            ServerPlayer serverPlayer = McUtils.getServerPlayer(player);
+            BlockPos hitTarget = McUtils.getPos(hitBlock.getLocation());
+            net.minecraft.world.item.ItemStack nmsItemStack = CraftItemStack.asNMSCopy(itemStack);
 
-        Vec3 hitPosition = McUtils.getVec3(hitLocation);
-        Direction direction = McUtils.getDirection(face);
+            Vec3 hitPosition = McUtils.getVec3(hitLocation);
+            Direction direction = McUtils.getDirection(face);
 
-        return getBlockDataForPlacement(serverPlayer, hitTarget, hitPosition, direction, nmsItemStack);
+            return getBlockDataForPlacement(serverPlayer, hitTarget, hitPosition, direction, nmsItemStack);
+        } finally {
+            ApiMetrics.record("BlockApi#getBlockDataForPlacement", sample);
+        }
     }
 
     /**
@@ -176,10 +201,15 @@ public class BlockApi {
      */
     @Deprecated(forRemoval = true,since = "1.7.1")
     public static float getDestroyProgress(Player player, Block bukkitBlock) {
-        BlockState state = McUtils.getBlockStateFromBlock(bukkitBlock);
-        Pair<ServerLevel, BlockPos> levelPos = McUtils.getLevelPos(bukkitBlock.getLocation());
-        ServerPlayer serverPlayer = McUtils.getServerPlayer(player);
-        return state.getDestroyProgress(serverPlayer, levelPos.getFirst(), levelPos.getSecond());
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            BlockState state = McUtils.getBlockStateFromBlock(bukkitBlock);
+            Pair<ServerLevel, BlockPos> levelPos = McUtils.getLevelPos(bukkitBlock.getLocation());
+            ServerPlayer serverPlayer = McUtils.getServerPlayer(player);
+            return state.getDestroyProgress(serverPlayer, levelPos.getFirst(), levelPos.getSecond());
+        } finally {
+            ApiMetrics.record("BlockApi#getDestroyProgress", sample);
+        }
     }
 
 }
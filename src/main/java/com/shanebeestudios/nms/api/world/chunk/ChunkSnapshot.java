@@ -0,0 +1,461 @@
+package com.shanebeestudios.nms.api.world.chunk;
+
+import com.shanebeestudios.nms.api.util.McUtils;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.core.Holder;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.util.SimpleBitStorage;
+import net.minecraft.world.level.LightLayer;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.DataLayer;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.lighting.LevelLightEngine;
+import org.bukkit.NamespacedKey;
+import org.bukkit.block.data.BlockData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, read-only copy of the blocks, biomes, heightmaps and light of a chunk
+ * <p>The copy is taken on the main thread, the snapshot can then be read from any thread,
+ * which allows heavy analysis to run on worker threads.</p>
+ * <p>Blocks and biomes are copied as Minecraft's own compact paletted containers,
+ * so a snapshot only takes about as much memory as the chunk sections themselves.
+ * {@link #getSection(int) Sections} additionally offer access by palette id,
+ * which is computed the first time a section is requested.</p>
+ * <p>All coordinates are world coordinates, only the lower 4 bits of X and Z are used.</p>
+ */
+@SuppressWarnings("unused")
+public class ChunkSnapshot {
+
+    /**
+     * Take a snapshot of a chunk
+     * <p>NOTE: This must be called on the main thread.</p>
+     *
+     * @param chunk Chunk to take snapshot of
+     * @return Snapshot of chunk
+     */
+    @NotNull
+    public static ChunkSnapshot of(@NotNull LevelChunk chunk) {
+        ServerLevel level = (ServerLevel) chunk.getLevel();
+        LevelLightEngine lightEngine = level.getLightEngine();
+        boolean hasSkyLight = level.dimensionType().hasSkyLight();
+
+        LevelChunkSection[] sections = chunk.getSections();
+        int minSection = chunk.getMinSectionY();
+        @SuppressWarnings("unchecked")
+        PalettedContainer<BlockState>[] blocks = new PalettedContainer[sections.length];
+        @SuppressWarnings("unchecked")
+        PalettedContainer<Holder<Biome>>[] biomes = new PalettedContainer[sections.length];
+        DataLayer[] blockLight = new DataLayer[sections.length];
+        DataLayer[] skyLight = new DataLayer[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            LevelChunkSection section = sections[i];
+            blocks[i] = section.getStates().copy();
+            biomes[i] = section.getBiomes().copy();
+
+            SectionPos sectionPos = SectionPos.of(chunk.getPos(), minSection + i);
+            blockLight[i] = copy(lightEngine.getLayerListener(LightLayer.BLOCK).getDataLayerData(sectionPos));
+            if (hasSkyLight) {
+                skyLight[i] = copy(lightEngine.getLayerListener(LightLayer.SKY).getDataLayerData(sectionPos));
+            }
+        }
+
+        Map<Heightmap.Types, long[]> heightmaps = new EnumMap<>(Heightmap.Types.class);
+        for (Map.Entry<Heightmap.Types, Heightmap> entry : chunk.getHeightmaps()) {
+            heightmaps.put(entry.getKey(), entry.getValue().getRawData().clone());
+        }
+
+        return new ChunkSnapshot(chunk.getPos().x, chunk.getPos().z, chunk.getMinY(), chunk.getHeight(), minSection,
+            blocks, biomes, blockLight, skyLight, hasSkyLight, heightmaps);
+    }
+
+    @Nullable
+    private static DataLayer copy(@Nullable DataLayer layer) {
+        return layer != null ? layer.copy() : null;
+    }
+
+    private final int chunkX;
+    private final int chunkZ;
+    private final int minY;
+    private final int height;
+    private final int minSection;
+    private final PalettedContainer<BlockState>[] blocks;
+    private final PalettedContainer<Holder<Biome>>[] biomes;
+    private final DataLayer[] blockLight;
+    private final DataLayer[] skyLight;
+    private final boolean hasSkyLight;
+    private final Map<Heightmap.Types, SimpleBitStorage> heightmaps;
+    private final Section[] sectionViews;
+
+    private ChunkSnapshot(int chunkX, int chunkZ, int minY, int height, int minSection,
+                          PalettedContainer<BlockState>[] blocks, PalettedContainer<Holder<Biome>>[] biomes,
+                          DataLayer[] blockLight, DataLayer[] skyLight, boolean hasSkyLight, Map<Heightmap.Types, long[]> heightmaps) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.minY = minY;
+        this.height = height;
+        this.minSection = minSection;
+        this.blocks = blocks;
+        this.biomes = biomes;
+        this.blockLight = blockLight;
+        this.skyLight = skyLight;
+        this.hasSkyLight = hasSkyLight;
+        this.sectionViews = new Section[blocks.length];
+
+        // Heightmaps store the first free Y above the min Y of the chunk, same as Heightmap does
+        int bits = Mth.ceillog2(height + 1);
+        Map<Heightmap.Types, SimpleBitStorage> storages = new EnumMap<>(Heightmap.Types.class);
+        heightmaps.forEach((type, data) -> storages.put(type, new SimpleBitStorage(bits, 256, data)));
+        this.heightmaps = Collections.unmodifiableMap(storages);
+    }
+
+    /**
+     * Get the X coordinate of the chunk
+     *
+     * @return X coordinate of chunk
+     */
+    public int getChunkX() {
+        return this.chunkX;
+    }
+
+    /**
+     * Get the Z coordinate of the chunk
+     *
+     * @return Z coordinate of chunk
+     */
+    public int getChunkZ() {
+        return this.chunkZ;
+    }
+
+    /**
+     * Get the min Y of the chunk
+     *
+     * @return Min Y (inclusive)
+     */
+    public int getMinY() {
+        return this.minY;
+    }
+
+    /**
+     * Get the max Y of the chunk
+     *
+     * @return Max Y (exclusive)
+     */
+    public int getMaxY() {
+        return this.minY + this.height;
+    }
+
+    /**
+     * Get the amount of sections in the chunk
+     *
+     * @return Amount of sections
+     */
+    public int getSectionCount() {
+        return this.blocks.length;
+    }
+
+    /**
+     * Get the BlockState at a position
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @param z Z coordinate
+     * @return BlockState at position, air if outside the height of the chunk
+     */
+    @NotNull
+    public BlockState getBlockState(int x, int y, int z) {
+        int index = getSectionIndex(y);
+        if (index < 0) return Blocks.AIR.defaultBlockState();
+        return this.blocks[index].get(x & 15, y & 15, z & 15);
+    }
+
+    /**
+     * Get the BlockData at a position
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @param z Z coordinate
+     * @return BlockData at position
+     */
+    @NotNull
+    public BlockData getBlockData(int x, int y, int z) {
+        return McUtils.getBlockDataFromState(getBlockState(x, y, z));
+    }
+
+    /**
+     * Get the biome at a position
+     * <p>Biomes are stored per 4x4x4 block cell.</p>
+     *
+     * @param x X coordinate
+     * @param y Y coordinate, clamped to the height of the chunk
+     * @param z Z coordinate
+     * @return Biome at position
+     */
+    @NotNull
+    public Holder<Biome> getBiome(int x, int y, int z) {
+        int clampedY = Mth.clamp(y, this.minY, getMaxY() - 1);
+        int index = getSectionIndex(clampedY);
+        return this.biomes[index].get((x & 15) >> 2, (clampedY & 15) >> 2, (z & 15) >> 2);
+    }
+
+    /**
+     * Get the key of the biome at a position
+     *
+     * @param x X coordinate
+     * @param y Y coordinate, clamped to the height of the chunk
+     * @param z Z coordinate
+     * @return Key of biome at position
+     */
+    @Nullable
+    public NamespacedKey getBiomeKey(int x, int y, int z) {
+        return McUtils.getBiomeKey(getBiome(x, y, z).value());
+    }
+
+    /**
+     * Get the Y of the highest block of a heightmap in a column
+     *
+     * @param type Type of heightmap
+     * @param x    X coordinate
+     * @param z    Z coordinate
+     * @return Y of highest block, min Y - 1 if the column is empty or the heightmap wasn't present
+     */
+    public int getHeight(@NotNull Heightmap.Types type, int x, int z) {
+        SimpleBitStorage storage = this.heightmaps.get(type);
+        if (storage == null) return this.minY - 1;
+        return storage.get((x & 15) + (z & 15) * 16) + this.minY - 1;
+    }
+
+    /**
+     * Get the block light level at a position
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @param z Z coordinate
+     * @return Block light level, 0 if no light data was stored
+     */
+    public int getBlockLight(int x, int y, int z) {
+        int index = getSectionIndex(y);
+        if (index < 0) return 0;
+        DataLayer layer = this.blockLight[index];
+        return layer != null ? layer.get(x & 15, y & 15, z & 15) : 0;
+    }
+
+    /**
+     * Get the sky light level at a position
+     * <p>If no light data was stored for the section, the sky light is 15
+     * above the {@link Heightmap.Types#MOTION_BLOCKING motion blocking} heightmap and 0 below it.</p>
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @param z Z coordinate
+     * @return Sky light level, always 0 in dimensions without sky light
+     */
+    public int getSkyLight(int x, int y, int z) {
+        if (!this.hasSkyLight) return 0;
+        int index = getSectionIndex(y);
+        DataLayer layer = index >= 0 ? this.skyLight[index] : null;
+        if (layer != null) return layer.get(x & 15, y & 15, z & 15);
+        return y > getHeight(Heightmap.Types.MOTION_BLOCKING, x, z) ? 15 : 0;
+    }
+
+    /**
+     * Get a view of a section by palette id
+     *
+     * @param sectionIndex Index of section, 0 being the lowest section
+     * @return View of section
+     */
+    @NotNull
+    public Section getSection(int sectionIndex) {
+        synchronized (this.sectionViews) {
+            Section section = this.sectionViews[sectionIndex];
+            if (section == null) {
+                section = new Section(this.blocks[sectionIndex], (this.minSection + sectionIndex) << 4);
+                this.sectionViews[sectionIndex] = section;
+            }
+            return section;
+        }
+    }
+
+    /**
+     * Get the index of the section containing a Y coordinate
+     *
+     * @param y Y coordinate
+     * @return Index of section, -1 if outside the height of the chunk
+     */
+    public int getSectionIndex(int y) {
+        int index = SectionPos.blockToSectionCoord(y) - this.minSection;
+        return index >= 0 && index < this.blocks.length ? index : -1;
+    }
+
+    /**
+     * Count the blocks of each BlockState in the chunk
+     *
+     * @return Map of BlockState to amount, sorted by amount (highest first)
+     */
+    @NotNull
+    public Map<BlockState, Integer> countBlocks() {
+        Reference2IntOpenHashMap<BlockState> counts = new Reference2IntOpenHashMap<>();
+        for (PalettedContainer<BlockState> container : this.blocks) {
+            container.count((state, count) -> counts.addTo(state, count));
+        }
+        Map<BlockState, Integer> sorted = new LinkedHashMap<>();
+        counts.reference2IntEntrySet().stream()
+            .sorted((a, b) -> Integer.compare(b.getIntValue(), a.getIntValue()))
+            .forEach(entry -> sorted.put(entry.getKey(), entry.getIntValue()));
+        return sorted;
+    }
+
+    @Override
+    public String toString() {
+        return "ChunkSnapshot{chunk=" + this.chunkX + "," + this.chunkZ + ",sections=" + this.blocks.length + "}";
+    }
+
+    /**
+     * View of the blocks of a section by palette id
+     * <p>Each distinct BlockState in the section has a palette id, and each block stores the id of its state.
+     * This allows analysis to work with small ints rather than BlockStates,
+     * for example by first checking the {@link #getPalette() palette} for interesting states.</p>
+     * <p>Blocks are indexed as {@code y << 8 | z << 4 | x}, using coordinates within the section.</p>
+     */
+    public static final class Section {
+
+        /**
+         * Visitor of blocks by palette id
+         */
+        @FunctionalInterface
+        public interface Visitor {
+
+            /**
+             * Visit a block
+             *
+             * @param x         X coordinate within section
+             * @param y         Y coordinate within section
+             * @param z         Z coordinate within section
+             * @param paletteId Palette id of BlockState of block
+             */
+            void visit(int x, int y, int z, int paletteId);
+
+        }
+
+        private final int minY;
+        private final List<BlockState> palette;
+        private final int[] counts;
+        private final SimpleBitStorage ids;
+
+        private Section(PalettedContainer<BlockState> container, int minY) {
+            this.minY = minY;
+            List<BlockState> palette = new ArrayList<>();
+            container.getAll(palette::add);
+            Reference2IntOpenHashMap<BlockState> idByState = new Reference2IntOpenHashMap<>(palette.size());
+            for (int i = 0; i < palette.size(); i++) {
+                idByState.put(palette.get(i), i);
+            }
+
+            this.counts = new int[palette.size()];
+            this.ids = new SimpleBitStorage(Math.max(1, Mth.ceillog2(palette.size())), 4096);
+            for (int index = 0; index < 4096; index++) {
+                int id = idByState.getInt(container.get(index & 15, index >> 8, (index >> 4) & 15));
+                this.ids.set(index, id);
+                this.counts[id]++;
+            }
+            this.palette = Collections.unmodifiableList(palette);
+        }
+
+        /**
+         * Get the min Y of this section
+         *
+         * @return Min Y of section
+         */
+        public int getMinY() {
+            return this.minY;
+        }
+
+        /**
+         * Get the palette of this section
+         * <p>The palette may contain states which no block uses anymore, see {@link #getCount(int)}.</p>
+         *
+         * @return Unmodifiable list of BlockStates, indexed by palette id
+         */
+        @NotNull
+        public List<BlockState> getPalette() {
+            return this.palette;
+        }
+
+        /**
+         * Get the palette id of a block
+         *
+         * @param x X coordinate within section
+         * @param y Y coordinate within section
+         * @param z Z coordinate within section
+         * @return Palette id of block
+         */
+        public int getPaletteId(int x, int y, int z) {
+            return this.ids.get((y & 15) << 8 | (z & 15) << 4 | (x & 15));
+        }
+
+        /**
+         * Get the amount of blocks with a palette id
+         *
+         * @param paletteId Palette id to count
+         * @return Amount of blocks with palette id
+         */
+        public int getCount(int paletteId) {
+            return this.counts[paletteId];
+        }
+
+        /**
+         * Check if this section only contains air
+         *
+         * @return True if only air
+         */
+        public boolean isEmpty() {
+            for (int id = 0; id < this.counts.length; id++) {
+                if (this.counts[id] > 0 && !this.palette.get(id).isAir()) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Visit every block in this section
+         *
+         * @param visitor Visitor of blocks
+         */
+        public void forEach(@NotNull Visitor visitor) {
+            for (int index = 0; index < 4096; index++) {
+                visitor.visit(index & 15, index >> 8, (index >> 4) & 15, this.ids.get(index));
+            }
+        }
+
+        /**
+         * Visit every block with a palette id in this section
+         *
+         * @param paletteId Palette id of blocks to visit
+         * @param visitor   Visitor of blocks
+         */
+        public void forEach(int paletteId, @NotNull Visitor visitor) {
+            if (this.counts[paletteId] == 0) return;
+            for (int index = 0; index < 4096; index++) {
+                if (this.ids.get(index) == paletteId) {
+                    visitor.visit(index & 15, index >> 8, (index >> 4) & 15, paletteId);
+                }
+            }
+        }
+
+    }
+
+}
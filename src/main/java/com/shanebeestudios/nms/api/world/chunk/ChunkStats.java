@@ -0,0 +1,197 @@
+package com.shanebeestudios.nms.api.world.chunk;
+
+import com.shanebeestudios.nms.api.util.McUtils;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.phys.AABB;
+import org.bukkit.NamespacedKey;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of what makes a chunk expensive to tick
+ * <p>Includes entities by type, ticking block entities, scheduled block/fluid ticks
+ * and sections with randomly ticking blocks.</p>
+ */
+@SuppressWarnings("unused")
+public class ChunkStats {
+
+    /**
+     * Collect the stats of a chunk
+     * <p>NOTE: This must be called on the main thread.</p>
+     *
+     * @param chunk Chunk to collect stats for
+     * @return Stats of chunk
+     */
+    @NotNull
+    public static ChunkStats of(@NotNull LevelChunk chunk) {
+        ServerLevel level = (ServerLevel) chunk.getLevel();
+        ChunkPos pos = chunk.getPos();
+
+        // Entities
+        AABB bounds = new AABB(pos.getMinBlockX(), level.getMinY(), pos.getMinBlockZ(),
+            pos.getMaxBlockX() + 1, level.getMinY() + level.getHeight(), pos.getMaxBlockZ() + 1);
+        List<Entity> entities = level.getEntities((Entity) null, bounds, entity -> true);
+        Reference2IntOpenHashMap<EntityType<?>> counts = new Reference2IntOpenHashMap<>();
+        for (Entity entity : entities) {
+            counts.addTo(entity.getType(), 1);
+        }
+        Map<NamespacedKey, Integer> entityCounts = new LinkedHashMap<>();
+        counts.reference2IntEntrySet().stream()
+            .sorted((a, b) -> Integer.compare(b.getIntValue(), a.getIntValue()))
+            .forEach(entry -> entityCounts.put(McUtils.getNamespacedKey(EntityType.getKey(entry.getKey())), entry.getIntValue()));
+
+        // Block entities
+        int tickingBlockEntities = 0;
+        for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+            if (blockEntity.getBlockState().getTicker(level, blockEntity.getType()) != null) tickingBlockEntities++;
+        }
+
+        // Random ticks
+        int randomTickingSections = 0;
+        for (LevelChunkSection section : chunk.getSections()) {
+            if (section.isRandomlyTicking()) randomTickingSections++;
+        }
+
+        return new ChunkStats(pos.x, pos.z, entities.size(), entityCounts, chunk.getBlockEntities().size(), tickingBlockEntities,
+            chunk.getBlockTicks().count(), chunk.getFluidTicks().count(), randomTickingSections);
+    }
+
+    private final int chunkX;
+    private final int chunkZ;
+    private final int entityCount;
+    private final Map<NamespacedKey, Integer> entityCounts;
+    private final int blockEntityCount;
+    private final int tickingBlockEntityCount;
+    private final int scheduledBlockTicks;
+    private final int scheduledFluidTicks;
+    private final int randomTickingSections;
+
+    private ChunkStats(int chunkX, int chunkZ, int entityCount, Map<NamespacedKey, Integer> entityCounts, int blockEntityCount,
+                       int tickingBlockEntityCount, int scheduledBlockTicks, int scheduledFluidTicks, int randomTickingSections) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.entityCount = entityCount;
+        this.entityCounts = Collections.unmodifiableMap(entityCounts);
+        this.blockEntityCount = blockEntityCount;
+        this.tickingBlockEntityCount = tickingBlockEntityCount;
+        this.scheduledBlockTicks = scheduledBlockTicks;
+        this.scheduledFluidTicks = scheduledFluidTicks;
+        this.randomTickingSections = randomTickingSections;
+    }
+
+    /**
+     * Get the X coordinate of the chunk
+     *
+     * @return X coordinate of chunk
+     */
+    public int getChunkX() {
+        return this.chunkX;
+    }
+
+    /**
+     * Get the Z coordinate of the chunk
+     *
+     * @return Z coordinate of chunk
+     */
+    public int getChunkZ() {
+        return this.chunkZ;
+    }
+
+    /**
+     * Get the total amount of entities in the chunk
+     *
+     * @return Amount of entities
+     */
+    public int getEntityCount() {
+        return this.entityCount;
+    }
+
+    /**
+     * Get the amount of entities in the chunk by type
+     *
+     * @return Unmodifiable map of entity type key to amount, sorted by amount (highest first)
+     */
+    @NotNull
+    public Map<NamespacedKey, Integer> getEntityCounts() {
+        return this.entityCounts;
+    }
+
+    /**
+     * Get the amount of block entities in the chunk
+     *
+     * @return Amount of block entities
+     */
+    public int getBlockEntityCount() {
+        return this.blockEntityCount;
+    }
+
+    /**
+     * Get the amount of block entities in the chunk which tick
+     *
+     * @return Amount of ticking block entities
+     */
+    public int getTickingBlockEntityCount() {
+        return this.tickingBlockEntityCount;
+    }
+
+    /**
+     * Get the amount of scheduled block ticks in the chunk
+     *
+     * @return Amount of scheduled block ticks
+     */
+    public int getScheduledBlockTicks() {
+        return this.scheduledBlockTicks;
+    }
+
+    /**
+     * Get the amount of scheduled fluid ticks in the chunk
+     *
+     * @return Amount of scheduled fluid ticks
+     */
+    public int getScheduledFluidTicks() {
+        return this.scheduledFluidTicks;
+    }
+
+    /**
+     * Get the amount of sections in the chunk with randomly ticking blocks or fluids
+     *
+     * @return Amount of randomly ticking sections
+     */
+    public int getRandomTickingSections() {
+        return this.randomTickingSections;
+    }
+
+    /**
+     * Get a rough estimate of how expensive this chunk is to tick
+     * <p>This is a weighted sum, where entities and ticking block entities weigh the most.
+     * It is only meant for ranking chunks against each other.</p>
+     *
+     * @return Estimated cost of chunk
+     */
+    public double getScore() {
+        return this.entityCount * 4.0
+            + this.tickingBlockEntityCount * 2.0
+            + (this.scheduledBlockTicks + this.scheduledFluidTicks) * 0.5
+            + this.randomTickingSections;
+    }
+
+    @Override
+    public String toString() {
+        return "ChunkStats{chunk=" + this.chunkX + "," + this.chunkZ + ",entities=" + this.entityCount +
+            ",tickingBlockEntities=" + this.tickingBlockEntityCount + "/" + this.blockEntityCount +
+            ",blockTicks=" + this.scheduledBlockTicks + ",fluidTicks=" + this.scheduledFluidTicks +
+            ",randomTickingSections=" + this.randomTickingSections + "}";
+    }
+
+}
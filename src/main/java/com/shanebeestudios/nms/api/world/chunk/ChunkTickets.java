@@ -0,0 +1,113 @@
+package com.shanebeestudios.nms.api.world.chunk;
+
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import org.bukkit.NamespacedKey;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Comparator;
+
+/**
+ * Adds and removes chunk tickets on behalf of a holder
+ * <p>Tickets keep chunks loaded until removed. Each holder has its own tickets,
+ * so removing the tickets of one holder does not unload chunks another holder keeps loaded.</p>
+ * <p>NOTE: This must be used on the main thread.</p>
+ */
+@SuppressWarnings("unused")
+public class ChunkTickets {
+
+    private ChunkTickets() {
+    }
+
+    /**
+     * Ticket type used for all tickets of this library
+     */
+    public static final TicketType<NamespacedKey> TICKET_TYPE = TicketType.create("nms_api", Comparator.comparing(NamespacedKey::toString));
+
+    // Distance from the ticket level of a fully loaded chunk, 2 is entity ticking (same as Bukkit plugin tickets)
+    private static final int LOADED_DISTANCE = 0;
+    private static final int TICKING_DISTANCE = 2;
+
+    /**
+     * Add a ticket to a chunk
+     *
+     * @param level   Level of chunk
+     * @param chunkX  X coordinate of chunk
+     * @param chunkZ  Z coordinate of chunk
+     * @param holder  Holder of ticket
+     * @param ticking Whether the chunk should tick, otherwise it is only kept loaded
+     */
+    public static void add(@NotNull ServerLevel level, int chunkX, int chunkZ, @NotNull NamespacedKey holder, boolean ticking) {
+        level.getChunkSource().addRegionTicket(TICKET_TYPE, new ChunkPos(chunkX, chunkZ), getDistance(ticking), holder);
+    }
+
+    /**
+     * Remove a ticket from a chunk
+     *
+     * @param level   Level of chunk
+     * @param chunkX  X coordinate of chunk
+     * @param chunkZ  Z coordinate of chunk
+     * @param holder  Holder of ticket
+     * @param ticking Whether the ticket was added as ticking
+     */
+    public static void remove(@NotNull ServerLevel level, int chunkX, int chunkZ, @NotNull NamespacedKey holder, boolean ticking) {
+        level.getChunkSource().removeRegionTicket(TICKET_TYPE, new ChunkPos(chunkX, chunkZ), getDistance(ticking), holder);
+    }
+
+    /**
+     * Add tickets to all chunks in a region
+     *
+     * @param level     Level of chunks
+     * @param minChunkX Min X coordinate of chunks
+     * @param minChunkZ Min Z coordinate of chunks
+     * @param maxChunkX Max X coordinate of chunks (inclusive)
+     * @param maxChunkZ Max Z coordinate of chunks (inclusive)
+     * @param holder    Holder of tickets
+     * @param ticking   Whether the chunks should tick, otherwise they are only kept loaded
+     * @return Amount of chunks tickets were added to
+     */
+    public static int addRegion(@NotNull ServerLevel level, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, @NotNull NamespacedKey holder, boolean ticking) {
+        ServerChunkCache chunkSource = level.getChunkSource();
+        int distance = getDistance(ticking);
+        int count = 0;
+        for (int z = minChunkZ; z <= maxChunkZ; z++) {
+            for (int x = minChunkX; x <= maxChunkX; x++) {
+                chunkSource.addRegionTicket(TICKET_TYPE, new ChunkPos(x, z), distance, holder);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Remove tickets from all chunks in a region
+     *
+     * @param level     Level of chunks
+     * @param minChunkX Min X coordinate of chunks
+     * @param minChunkZ Min Z coordinate of chunks
+     * @param maxChunkX Max X coordinate of chunks (inclusive)
+     * @param maxChunkZ Max Z coordinate of chunks (inclusive)
+     * @param holder    Holder of tickets
+     * @param ticking   Whether the tickets were added as ticking
+     * @return Amount of chunks tickets were removed from
+     */
+    public static int removeRegion(@NotNull ServerLevel level, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, @NotNull NamespacedKey holder, boolean ticking) {
+        ServerChunkCache chunkSource = level.getChunkSource();
+        int distance = getDistance(ticking);
+        int count = 0;
+        for (int z = minChunkZ; z <= maxChunkZ; z++) {
+            for (int x = minChunkX; x <= maxChunkX; x++) {
+                chunkSource.removeRegionTicket(TICKET_TYPE, new ChunkPos(x, z), distance, holder);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int getDistance(boolean ticking) {
+        return ticking ? TICKING_DISTANCE : LOADED_DISTANCE;
+    }
+
+}
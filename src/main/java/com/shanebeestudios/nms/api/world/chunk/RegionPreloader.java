@@ -0,0 +1,249 @@
+package com.shanebeestudios.nms.api.world.chunk;
+
+import com.shanebeestudios.nms.api.util.McUtils;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Loads (or generates) a region of chunks asynchronously, with a limited amount of chunks in flight
+ * <p>Chunks are requested nearest to the center first. Each time a chunk finishes loading, the next one is requested,
+ * so the server's chunk system is kept busy without flooding it.</p>
+ * <p>Optionally a {@link ChunkTickets ticket} is added to each chunk once loaded, so the region stays loaded
+ * until {@link #releaseTickets()} is called.</p>
+ * <p>NOTE: This must be started on the main thread, chunk callbacks also run on the main thread.</p>
+ */
+@SuppressWarnings("unused")
+public class RegionPreloader {
+
+    private static final AtomicInteger WHEN_LOADED_ID = new AtomicInteger();
+    private static final int WHEN_LOADED_IN_FLIGHT = 16;
+
+    /**
+     * Start preloading a region of chunks
+     *
+     * @param world       World to load chunks in
+     * @param minChunkX   Min X coordinate of chunks
+     * @param minChunkZ   Min Z coordinate of chunks
+     * @param maxChunkX   Max X coordinate of chunks (inclusive)
+     * @param maxChunkZ   Max Z coordinate of chunks (inclusive)
+     * @param maxInFlight Max amount of chunks to load at the same time
+     * @param holder      Holder of tickets to add to loaded chunks, null to not add tickets
+     * @param ticking     Whether tickets should make chunks tick, otherwise they are only kept loaded
+     * @return Started preloader
+     */
+    @NotNull
+    public static RegionPreloader start(@NotNull World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ,
+                                        int maxInFlight, @Nullable NamespacedKey holder, boolean ticking) {
+        RegionPreloader preloader = new RegionPreloader(world, minChunkX, minChunkZ, maxChunkX, maxChunkZ, Math.max(1, maxInFlight), holder, ticking);
+        if (preloader.chunks.length == 0) {
+            preloader.future.complete(0);
+        } else {
+            preloader.fill();
+        }
+        return preloader;
+    }
+
+    /**
+     * Load (or generate) a region of chunks asynchronously, then run an action on the main thread
+     * <p>The chunks are kept loaded with tickets until the action has run, so the action won't load any chunks itself.</p>
+     * <p>NOTE: This must be called on the main thread.</p>
+     *
+     * @param world     World to load chunks in
+     * @param minChunkX Min X coordinate of chunks
+     * @param minChunkZ Min Z coordinate of chunks
+     * @param maxChunkX Max X coordinate of chunks (inclusive)
+     * @param maxChunkZ Max Z coordinate of chunks (inclusive)
+     * @param action    Action to run once all chunks are loaded
+     * @param <T>       Result of action
+     * @return Future of the result of the action, completed on the main thread
+     */
+    @NotNull
+    public static <T> CompletableFuture<T> whenLoaded(@NotNull World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, @NotNull Supplier<T> action) {
+        // Each call gets its own holder, so finishing one call doesn't release the chunks of another
+        NamespacedKey holder = new NamespacedKey("nms_api", "when_loaded_" + WHEN_LOADED_ID.incrementAndGet());
+        RegionPreloader preloader = start(world, minChunkX, minChunkZ, maxChunkX, maxChunkZ, WHEN_LOADED_IN_FLIGHT, holder, false);
+        return preloader.getFuture().handle((count, throwable) -> {
+            try {
+                if (throwable != null) throw new CompletionException(throwable);
+                return action.get();
+            } finally {
+                preloader.releaseTickets();
+            }
+        });
+    }
+
+    private final CompletableFuture<Integer> future = new CompletableFuture<>();
+    private final World world;
+    private final ServerLevel level;
+    private final long[] chunks;
+    private final int maxInFlight;
+    private final NamespacedKey holder;
+    private final boolean ticking;
+    private final long startNanos = System.nanoTime();
+    private int nextIndex;
+    private int inFlight;
+    private volatile int loadedChunks;
+    private volatile long finishNanos;
+    private boolean ticketsAdded;
+    private boolean filling;
+
+    private RegionPreloader(World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, int maxInFlight, @Nullable NamespacedKey holder, boolean ticking) {
+        this.world = world;
+        this.level = McUtils.getServerLevel(world);
+        this.maxInFlight = maxInFlight;
+        this.holder = holder;
+        this.ticking = ticking;
+
+        // Order chunks by distance from the center of the region
+        int centerX = (minChunkX + maxChunkX) >> 1;
+        int centerZ = (minChunkZ + maxChunkZ) >> 1;
+        int sizeX = maxChunkX - minChunkX + 1;
+        int sizeZ = maxChunkZ - minChunkZ + 1;
+        long[] chunks = new long[sizeX * sizeZ];
+        int i = 0;
+        for (int z = minChunkZ; z <= maxChunkZ; z++) {
+            for (int x = minChunkX; x <= maxChunkX; x++) {
+                chunks[i++] = ChunkPos.asLong(x, z);
+            }
+        }
+        this.chunks = Arrays.stream(chunks).boxed()
+            .sorted(Comparator.comparingInt(pos -> {
+                int dx = ChunkPos.getX(pos) - centerX;
+                int dz = ChunkPos.getZ(pos) - centerZ;
+                return dx * dx + dz * dz;
+            }))
+            .mapToLong(Long::longValue)
+            .toArray();
+    }
+
+    private void fill() {
+        // Already loaded chunks complete right away, don't recurse into fill for those
+        if (this.filling) return;
+        this.filling = true;
+        while (this.inFlight < this.maxInFlight && this.nextIndex < this.chunks.length && !this.future.isDone()) {
+            long pos = this.chunks[this.nextIndex++];
+            int x = ChunkPos.getX(pos);
+            int z = ChunkPos.getZ(pos);
+            this.inFlight++;
+            this.world.getChunkAtAsync(x, z, true).whenComplete((chunk, throwable) -> {
+                this.inFlight--;
+                if (throwable != null) {
+                    this.future.completeExceptionally(throwable);
+                    return;
+                }
+                if (this.holder != null && !this.future.isCancelled()) {
+                    ChunkTickets.add(this.level, x, z, this.holder, this.ticking);
+                    this.ticketsAdded = true;
+                }
+                this.loadedChunks++;
+                if (this.loadedChunks == this.chunks.length) {
+                    this.finishNanos = System.nanoTime();
+                    this.future.complete(this.loadedChunks);
+                } else {
+                    fill();
+                }
+            });
+        }
+        this.filling = false;
+    }
+
+    /**
+     * Get the future which completes when all chunks are loaded
+     * <p>The future will be cancelled if this preloader is cancelled.</p>
+     *
+     * @return Future of the amount of loaded chunks
+     */
+    @NotNull
+    public CompletableFuture<Integer> getFuture() {
+        return this.future;
+    }
+
+    /**
+     * Get the total amount of chunks in the region
+     *
+     * @return Total amount of chunks
+     */
+    public int getTotalChunks() {
+        return this.chunks.length;
+    }
+
+    /**
+     * Get the amount of chunks which finished loading
+     *
+     * @return Amount of loaded chunks
+     */
+    public int getLoadedChunks() {
+        return this.loadedChunks;
+    }
+
+    /**
+     * Get the progress of this preloader
+     *
+     * @return Progress between 0 and 1
+     */
+    public double getProgress() {
+        if (this.chunks.length == 0) return 1;
+        return (double) this.loadedChunks / this.chunks.length;
+    }
+
+    /**
+     * Get the average amount of chunks loaded per second
+     *
+     * @return Chunks per second since starting
+     */
+    public double getChunksPerSecond() {
+        long end = this.finishNanos != 0 ? this.finishNanos : System.nanoTime();
+        double seconds = (end - this.startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        return seconds <= 0 ? 0 : this.loadedChunks / seconds;
+    }
+
+    /**
+     * Cancel this preloader
+     * <p>Chunks which are already loading will finish loading, but no more will be requested.
+     * Tickets which were already added are kept, see {@link #releaseTickets()}.</p>
+     *
+     * @return True if cancelled, false if already finished
+     */
+    public boolean cancel() {
+        return this.future.cancel(false);
+    }
+
+    /**
+     * Check if this preloader is finished, either by completing, failing or being cancelled
+     *
+     * @return True if finished
+     */
+    public boolean isDone() {
+        return this.future.isDone();
+    }
+
+    /**
+     * Remove all tickets this preloader added
+     * <p>NOTE: This must be called on the main thread.</p>
+     */
+    public void releaseTickets() {
+        if (this.holder == null || !this.ticketsAdded) return;
+        for (long pos : this.chunks) {
+            ChunkTickets.remove(this.level, ChunkPos.getX(pos), ChunkPos.getZ(pos), this.holder, this.ticking);
+        }
+        this.ticketsAdded = false;
+    }
+
+    @Override
+    public String toString() {
+        return "RegionPreloader{chunks=" + this.loadedChunks + "/" + this.chunks.length + ",inFlight=" + this.inFlight + "}";
+    }
+
+}
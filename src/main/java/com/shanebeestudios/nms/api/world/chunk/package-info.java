@@ -0,0 +1,4 @@
+/**
+ * Api relating to Minecraft Chunks
+ */
+package com.shanebeestudios.nms.api.world.chunk;
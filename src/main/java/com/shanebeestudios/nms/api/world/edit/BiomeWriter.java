@@ -0,0 +1,124 @@
+package com.shanebeestudios.nms.api.world.edit;
+
+import com.shanebeestudios.nms.api.util.McUtils;
+import net.minecraft.core.Holder;
+import net.minecraft.core.QuartPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.BiomeResolver;
+import net.minecraft.world.level.biome.Climate;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Bulk biome writer which only writes the chunk sections overlapping a box
+ * <p>Only chunks where at least one biome cell actually changed are marked unsaved
+ * and have their biomes resent to players.</p>
+ * <p>NOTE: This must be used on the main thread.</p>
+ */
+@SuppressWarnings("unused")
+public class BiomeWriter {
+
+    private final ServerLevel level;
+    private final BoundingBox box;
+    private final Holder<Biome> biome;
+    private final Predicate<Holder<Biome>> filter;
+    private final Climate.Sampler sampler;
+    private final int minSectionY;
+    private final int maxSectionY;
+    private final List<ChunkAccess> changedChunks = new ArrayList<>();
+    private int changedCells;
+    private int changedChunkCount;
+
+    /**
+     * Create a new biome writer
+     *
+     * @param level  Level to write biomes to
+     * @param box    Box to fill with biome
+     * @param biome  Biome to fill with
+     * @param filter Filter of biomes which may be replaced (null to replace all)
+     */
+    public BiomeWriter(@NotNull ServerLevel level, @NotNull BoundingBox box, @NotNull Holder<Biome> biome, @Nullable Predicate<Holder<Biome>> filter) {
+        this.level = level;
+        this.box = box;
+        this.biome = biome;
+        this.filter = filter != null ? filter : holder -> true;
+        this.sampler = level.getChunkSource().randomState().sampler();
+        this.minSectionY = SectionPos.blockToSectionCoord(Math.max(box.minY(), level.getMinY()));
+        this.maxSectionY = SectionPos.blockToSectionCoord(Math.min(box.maxY(), level.getMinY() + level.getHeight() - 1));
+    }
+
+    /**
+     * Fill the sections of a chunk which overlap the box
+     *
+     * @param chunk Chunk to fill
+     * @return Amount of biome cells changed in this chunk
+     */
+    public int fill(@NotNull ChunkAccess chunk) {
+        MutableInt count = new MutableInt(0);
+        BiomeResolver resolver = McUtils.getBiomeResolver(count, chunk, this.box, this.biome, this.filter);
+        int quartX = QuartPos.fromBlock(chunk.getPos().getMinBlockX());
+        int quartZ = QuartPos.fromBlock(chunk.getPos().getMinBlockZ());
+        for (int sectionY = this.minSectionY; sectionY <= this.maxSectionY; sectionY++) {
+            chunk.getSection(chunk.getSectionIndexFromSectionY(sectionY))
+                .fillBiomesFromNoise(resolver, this.sampler, quartX, QuartPos.fromSection(sectionY), quartZ);
+        }
+
+        int changed = count.intValue();
+        if (changed > 0) {
+            chunk.markUnsaved();
+            this.changedChunks.add(chunk);
+            this.changedCells += changed;
+            this.changedChunkCount++;
+        }
+        return changed;
+    }
+
+    /**
+     * Resend biomes of chunks which changed since the last resend
+     * <p>This is automatically done when {@link #finish() finished}.</p>
+     */
+    public void resend() {
+        if (this.changedChunks.isEmpty()) return;
+        this.level.getChunkSource().chunkMap.resendBiomesForChunks(this.changedChunks);
+        this.changedChunks.clear();
+    }
+
+    /**
+     * Get the amount of biome cells which were changed so far
+     *
+     * @return Amount of changed biome cells
+     */
+    public int getChangedCells() {
+        return this.changedCells;
+    }
+
+    /**
+     * Get the amount of chunks which were changed so far
+     *
+     * @return Amount of changed chunks
+     */
+    public int getChangedChunks() {
+        return this.changedChunkCount;
+    }
+
+    /**
+     * Finish this writer
+     * <p>This will resend biomes of changed chunks.</p>
+     *
+     * @return Amount of biome cells which were changed
+     */
+    public int finish() {
+        resend();
+        return this.changedCells;
+    }
+
+}
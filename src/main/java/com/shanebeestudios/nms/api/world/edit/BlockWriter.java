@@ -0,0 +1,251 @@
+package com.shanebeestudios.nms.api.world.edit;
+
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.protocol.game.ClientboundSectionBlocksUpdatePacket;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.Clearable;
+import net.minecraft.world.entity.ai.village.poi.PoiTypes;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.lighting.LightEngine;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Bulk block writer which writes directly into the {@link LevelChunkSection LevelChunkSections} of a level
+ * <p>Blocks are written one section at a time, skipping most of the per-block work done by
+ * {@link ServerLevel#setBlock(BlockPos, BlockState, int)}.
+ * Heightmaps are only updated for changed blocks at or above their current top, light checks are only queued for blocks whose
+ * light properties changed, and one {@link ClientboundSectionBlocksUpdatePacket} is sent per changed section.</p>
+ * <p>Positions where either the old or new state has a block entity fall back to a regular block set.</p>
+ * <p>NOTE: This must be used on the main thread.</p>
+ */
+@SuppressWarnings("unused")
+public class BlockWriter {
+
+    private static final int NO_COLUMN = Integer.MIN_VALUE;
+
+    private final ServerLevel level;
+    private final boolean updateNeighbors;
+    private final List<BlockPos> neighborUpdates = new ArrayList<>();
+    // Highest and lowest changed Y of each column of the current chunk
+    private final int[] columnTops = new int[256];
+    private final int[] columnBottoms = new int[256];
+
+    private LevelChunk chunk;
+    private boolean chunkChanged;
+    private LevelChunkSection section;
+    private SectionPos sectionPos;
+    private boolean sectionWasEmpty;
+    private final ShortSet sectionChanges = new ShortOpenHashSet();
+
+    private int changedBlocks;
+    private int changedSections;
+    private int changedChunks;
+
+    /**
+     * Create a new block writer for a level
+     *
+     * @param level           Level to write blocks to
+     * @param updateNeighbors Whether to update neighbors of changed blocks when {@link #finish() finished}
+     */
+    public BlockWriter(@NotNull ServerLevel level, boolean updateNeighbors) {
+        this.level = level;
+        this.updateNeighbors = updateNeighbors;
+    }
+
+    /**
+     * Fill the part of a box which is inside a chunk
+     *
+     * @param chunk  Chunk to fill
+     * @param box    Box to fill
+     * @param state  State to fill with
+     * @param filter Filter of states which may be replaced (null to replace all)
+     * @return Amount of blocks changed in this chunk
+     */
+    public int fill(@NotNull LevelChunk chunk, @NotNull BoundingBox box, @NotNull BlockState state, @Nullable Predicate<BlockState> filter) {
+        ChunkPos chunkPos = chunk.getPos();
+        int minX = Math.max(box.minX(), chunkPos.getMinBlockX());
+        int maxX = Math.min(box.maxX(), chunkPos.getMaxBlockX());
+        int minZ = Math.max(box.minZ(), chunkPos.getMinBlockZ());
+        int maxZ = Math.min(box.maxZ(), chunkPos.getMaxBlockZ());
+        int minY = Math.max(box.minY(), this.level.getMinY());
+        int maxY = Math.min(box.maxY(), this.level.getMinY() + this.level.getHeight() - 1);
+        if (minX > maxX || minZ > maxZ || minY > maxY) return 0;
+
+        int before = this.changedBlocks;
+        beginChunk(chunk);
+        for (int sectionY = SectionPos.blockToSectionCoord(minY); sectionY <= SectionPos.blockToSectionCoord(maxY); sectionY++) {
+            beginSection(sectionY);
+            int fromY = Math.max(minY, SectionPos.sectionToBlockCoord(sectionY));
+            int toY = Math.min(maxY, SectionPos.sectionToBlockCoord(sectionY, 15));
+            for (int y = fromY; y <= toY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    for (int x = minX; x <= maxX; x++) {
+                        setBlock(x, y, z, state, filter);
+                    }
+                }
+            }
+            endSection();
+        }
+        endChunk();
+        return this.changedBlocks - before;
+    }
+
+    /**
+     * Apply planned changes to a chunk
+     *
+     * @param chunk    Chunk to apply changes to
+     * @param sections Changes of sections within this chunk
+     * @param filter   Filter of states which may be replaced (null to replace all)
+     * @return Amount of blocks changed in this chunk
+     */
+    int apply(@NotNull LevelChunk chunk, @NotNull List<SectionChanges> sections, @Nullable Predicate<BlockState> filter) {
+        int before = this.changedBlocks;
+        int baseX = chunk.getPos().getMinBlockX();
+        int baseZ = chunk.getPos().getMinBlockZ();
+        beginChunk(chunk);
+        for (SectionChanges changes : sections) {
+            int sectionY = SectionPos.y(changes.sectionPos);
+            int baseY = SectionPos.sectionToBlockCoord(sectionY);
+            beginSection(sectionY);
+            for (int i = 0; i < changes.positions.length; i++) {
+                short pos = changes.positions[i];
+                setBlock(baseX + (pos >>> 8 & 15), baseY + (pos & 15), baseZ + (pos >>> 4 & 15), changes.palette[changes.states[i]], filter);
+            }
+            endSection();
+        }
+        endChunk();
+        return this.changedBlocks - before;
+    }
+
+    /**
+     * Finish this writer
+     * <p>This will run neighbor updates if enabled and return the result of all writes.</p>
+     *
+     * @return Result of all writes
+     */
+    @NotNull
+    public FillResult finish() {
+        updateNeighbors();
+        return new FillResult(this.changedBlocks, this.changedSections, this.changedChunks);
+    }
+
+    /**
+     * Run all pending neighbor updates of changed blocks
+     * <p>This is automatically done when {@link #finish() finished}.</p>
+     */
+    public void updateNeighbors() {
+        for (BlockPos pos : this.neighborUpdates) {
+            this.level.blockUpdated(pos, this.level.getBlockState(pos).getBlock());
+        }
+        this.neighborUpdates.clear();
+    }
+
+    void beginChunk(LevelChunk chunk) {
+        this.chunk = chunk;
+        this.chunkChanged = false;
+        Arrays.fill(this.columnTops, NO_COLUMN);
+        Arrays.fill(this.columnBottoms, Integer.MAX_VALUE);
+    }
+
+    void beginSection(int sectionY) {
+        this.section = this.chunk.getSection(this.level.getSectionIndexFromSectionY(sectionY));
+        this.sectionPos = SectionPos.of(this.chunk.getPos(), sectionY);
+        this.sectionWasEmpty = this.section.hasOnlyAir();
+        this.sectionChanges.clear();
+    }
+
+    void setBlock(int x, int y, int z, BlockState state, @Nullable Predicate<BlockState> filter) {
+        int localX = x & 15;
+        int localY = y & 15;
+        int localZ = z & 15;
+        BlockState oldState = this.section.getBlockState(localX, localY, localZ);
+        if (oldState == state || (filter != null && !filter.test(oldState))) return;
+
+        if (oldState.hasBlockEntity() || state.hasBlockEntity()) {
+            // Block entities need the full set logic
+            BlockPos pos = new BlockPos(x, y, z);
+            Clearable.tryClear(this.level.getBlockEntity(pos));
+            if (!this.level.setBlock(pos, state, Block.UPDATE_CLIENTS)) return;
+            if (this.updateNeighbors) this.neighborUpdates.add(pos);
+        } else {
+            this.section.setBlockState(localX, localY, localZ, state, false);
+            this.sectionChanges.add((short) (localX << 8 | localZ << 4 | localY));
+
+            boolean lightChanged = LightEngine.hasDifferentLightProperties(oldState, state);
+            boolean poiChanged = PoiTypes.hasPoi(oldState) || PoiTypes.hasPoi(state);
+            if (lightChanged || poiChanged || this.updateNeighbors) {
+                BlockPos pos = new BlockPos(x, y, z);
+                if (lightChanged) this.level.getChunkSource().getLightEngine().checkBlock(pos);
+                if (poiChanged) this.level.onBlockStateChange(pos, oldState, state);
+                if (this.updateNeighbors) this.neighborUpdates.add(pos);
+            }
+        }
+
+        int column = localZ << 4 | localX;
+        if (y > this.columnTops[column]) this.columnTops[column] = y;
+        if (y < this.columnBottoms[column]) this.columnBottoms[column] = y;
+        this.chunkChanged = true;
+        this.changedBlocks++;
+    }
+
+    void endSection() {
+        if (this.sectionChanges.isEmpty()) return;
+
+        boolean empty = this.section.hasOnlyAir();
+        if (empty != this.sectionWasEmpty) {
+            this.level.getChunkSource().getLightEngine().updateSectionStatus(this.sectionPos, empty);
+        }
+
+        ClientboundSectionBlocksUpdatePacket packet = new ClientboundSectionBlocksUpdatePacket(this.sectionPos, this.sectionChanges, this.section);
+        for (ServerPlayer player : this.level.getChunkSource().chunkMap.getPlayers(this.chunk.getPos(), false)) {
+            player.connection.send(packet);
+        }
+        this.changedSections++;
+    }
+
+    void endChunk() {
+        if (!this.chunkChanged) return;
+
+        // Heightmaps only react to changes at or above their current top, so walk each column's
+        // changed range downwards and stop once below the top. A changed top that no longer qualifies
+        // makes the heightmap scan down itself, which sees the final states of all changed blocks.
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        int minX = this.chunk.getPos().getMinBlockX();
+        int minZ = this.chunk.getPos().getMinBlockZ();
+        for (int column = 0; column < 256; column++) {
+            int top = this.columnTops[column];
+            if (top == NO_COLUMN) continue;
+
+            int bottom = this.columnBottoms[column];
+            int localX = column & 15;
+            int localZ = column >> 4;
+            for (Map.Entry<Heightmap.Types, Heightmap> entry : this.chunk.getHeightmaps()) {
+                Heightmap heightmap = entry.getValue();
+                for (int y = top; y >= bottom; y--) {
+                    if (y < heightmap.getFirstAvailable(localX, localZ) - 1) break;
+                    heightmap.update(localX, y, localZ, this.chunk.getBlockState(pos.set(minX + localX, y, minZ + localZ)));
+                }
+            }
+        }
+        this.chunk.markUnsaved();
+        this.changedChunks++;
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.shanebeestudios.nms.api.world.edit;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.ShortArrayList;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+/**
+ * A planned block edit
+ * <p>Planning copies the block palettes of all affected sections on the main thread,
+ * then evaluates the mask and pattern in parallel off the main thread.
+ * The resulting plan only holds the blocks which will actually change,
+ * so {@link #apply() applying} it only costs as much as the amount of changes.</p>
+ * <p>The mask is checked again when applying, so blocks which changed after planning
+ * and no longer match the mask will be skipped.</p>
+ */
+@SuppressWarnings("unused")
+public class EditPlan {
+
+    /**
+     * Create a plan for an edit
+     * <p>NOTE: This must be called on the main thread, the returned future completes off the main thread.</p>
+     *
+     * @param level   Level to edit
+     * @param box     Box to edit
+     * @param mask    Mask of states which may be changed (null to allow all)
+     * @param pattern Pattern of states to change to
+     * @return Future of the plan
+     */
+    @NotNull
+    public static CompletableFuture<EditPlan> create(@NotNull ServerLevel level, @NotNull BoundingBox box, @Nullable Predicate<BlockState> mask, @NotNull StatePattern pattern) {
+        int minY = Math.max(box.minY(), level.getMinY());
+        int maxY = Math.min(box.maxY(), level.getMinY() + level.getHeight() - 1);
+
+        // Copy palettes on the main thread
+        List<SectionCopy> copies = new ArrayList<>();
+        for (int z = SectionPos.blockToSectionCoord(box.minZ()); z <= SectionPos.blockToSectionCoord(box.maxZ()); ++z) {
+            for (int x = SectionPos.blockToSectionCoord(box.minX()); x <= SectionPos.blockToSectionCoord(box.maxX()); ++x) {
+                LevelChunk chunk = level.getChunk(x, z);
+                for (int y = SectionPos.blockToSectionCoord(minY); y <= SectionPos.blockToSectionCoord(maxY); y++) {
+                    PalettedContainer<BlockState> states = chunk.getSection(level.getSectionIndexFromSectionY(y)).getStates().copy();
+                    copies.add(new SectionCopy(SectionPos.asLong(x, y, z), states));
+                }
+            }
+        }
+
+        // Evaluate off the main thread
+        return CompletableFuture.supplyAsync(() -> {
+            List<SectionChanges> changes = copies.parallelStream()
+                .map(copy -> evaluate(copy, box, minY, maxY, mask, pattern))
+                .filter(Objects::nonNull)
+                .toList();
+            return new EditPlan(level, mask, changes);
+        });
+    }
+
+    @Nullable
+    private static SectionChanges evaluate(SectionCopy copy, BoundingBox box, int minY, int maxY, @Nullable Predicate<BlockState> mask, StatePattern pattern) {
+        int baseX = SectionPos.sectionToBlockCoord(SectionPos.x(copy.sectionPos));
+        int baseY = SectionPos.sectionToBlockCoord(SectionPos.y(copy.sectionPos));
+        int baseZ = SectionPos.sectionToBlockCoord(SectionPos.z(copy.sectionPos));
+        int fromX = Math.max(box.minX(), baseX);
+        int toX = Math.min(box.maxX(), baseX + 15);
+        int fromY = Math.max(minY, baseY);
+        int toY = Math.min(maxY, baseY + 15);
+        int fromZ = Math.max(box.minZ(), baseZ);
+        int toZ = Math.min(box.maxZ(), baseZ + 15);
+
+        ShortArrayList positions = new ShortArrayList();
+        ShortArrayList states = new ShortArrayList();
+        List<BlockState> palette = new ArrayList<>();
+        Reference2IntOpenHashMap<BlockState> paletteIds = new Reference2IntOpenHashMap<>();
+        paletteIds.defaultReturnValue(-1);
+
+        for (int y = fromY; y <= toY; y++) {
+            for (int z = fromZ; z <= toZ; z++) {
+                for (int x = fromX; x <= toX; x++) {
+                    BlockState current = copy.states.get(x & 15, y & 15, z & 15);
+                    if (mask != null && !mask.test(current)) continue;
+
+                    BlockState state = pattern.getState(x, y, z, current);
+                    if (state == null || state == current) continue;
+
+                    int id = paletteIds.getInt(state);
+                    if (id == -1) {
+                        id = palette.size();
+                        palette.add(state);
+                        paletteIds.put(state, id);
+                    }
+                    positions.add((short) ((x & 15) << 8 | (z & 15) << 4 | (y & 15)));
+                    states.add((short) id);
+                }
+            }
+        }
+        if (positions.isEmpty()) return null;
+        return new SectionChanges(copy.sectionPos, positions.toShortArray(), states.toShortArray(), palette.toArray(new BlockState[0]));
+    }
+
+    private final ServerLevel level;
+    private final Predicate<BlockState> mask;
+    private final List<SectionChanges> changes;
+    private final int changeCount;
+
+    private EditPlan(ServerLevel level, @Nullable Predicate<BlockState> mask, List<SectionChanges> changes) {
+        this.level = level;
+        this.mask = mask;
+        this.changes = changes;
+        int count = 0;
+        for (SectionChanges change : changes) {
+            count += change.size();
+        }
+        this.changeCount = count;
+    }
+
+    /**
+     * Get the amount of blocks this plan will change
+     *
+     * @return Amount of planned changes
+     */
+    public int getChangeCount() {
+        return this.changeCount;
+    }
+
+    /**
+     * Get the amount of sections this plan will change
+     *
+     * @return Amount of sections with planned changes
+     */
+    public int getSectionCount() {
+        return this.changes.size();
+    }
+
+    /**
+     * Apply this plan to the level
+     * <p>NOTE: This must be called on the main thread.</p>
+     *
+     * @param updateNeighbors Whether to update the neighbors of changed blocks
+     * @return Result of applying the plan
+     */
+    @NotNull
+    public FillResult apply(boolean updateNeighbors) {
+        BlockWriter writer = new BlockWriter(this.level, updateNeighbors);
+        // Sections are grouped by chunk, in the order they were copied
+        int start = 0;
+        while (start < this.changes.size()) {
+            long sectionPos = this.changes.get(start).sectionPos;
+            int chunkX = SectionPos.x(sectionPos);
+            int chunkZ = SectionPos.z(sectionPos);
+            int end = start + 1;
+            while (end < this.changes.size() && isSameChunk(this.changes.get(end).sectionPos, chunkX, chunkZ)) {
+                end++;
+            }
+            writer.apply(this.level.getChunk(chunkX, chunkZ), this.changes.subList(start, end), this.mask);
+            start = end;
+        }
+        return writer.finish();
+    }
+
+    /**
+     * Apply this plan to the level, updating neighbors of changed blocks
+     * <p>NOTE: This must be called on the main thread.</p>
+     *
+     * @return Result of applying the plan
+     */
+    @NotNull
+    public FillResult apply() {
+        return apply(true);
+    }
+
+    private static boolean isSameChunk(long sectionPos, int chunkX, int chunkZ) {
+        return SectionPos.x(sectionPos) == chunkX && SectionPos.z(sectionPos) == chunkZ;
+    }
+
+    @Override
+    public String toString() {
+        return "EditPlan{changes=" + this.changeCount + ",sections=" + this.changes.size() + "}";
+    }
+
+    private static final class SectionCopy {
+
+        private final long sectionPos;
+        private final PalettedContainer<BlockState> states;
+
+        private SectionCopy(long sectionPos, PalettedContainer<BlockState> states) {
+            this.sectionPos = sectionPos;
+            this.states = states;
+        }
+
+    }
+
+}
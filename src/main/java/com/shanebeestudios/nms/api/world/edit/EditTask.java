@@ -0,0 +1,304 @@
+package com.shanebeestudios.nms.api.world.edit;
+
+import com.shanebeestudios.nms.api.server.TickScheduler;
+import com.shanebeestudios.nms.api.util.McUtils;
+import com.shanebeestudios.nms.api.world.chunk.ChunkTickets;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * An edit which is split into chunk sized work units and applied over multiple ticks
+ * <p>Each tick, work units are applied until the per-tick budget is used up.
+ * The edit can be cancelled at any time using {@link #cancel()},
+ * already applied work units will not be reverted.</p>
+ * <p>When scheduled with a {@link World}, the chunks of upcoming work units are loaded asynchronously ahead of time
+ * and kept loaded with {@link ChunkTickets tickets} until applied. A work unit is only applied once its chunk is loaded,
+ * so loading or generating a chunk never happens within the per-tick budget.
+ * If a chunk fails to load, or takes longer than a minute to load, the edit completes exceptionally.</p>
+ *
+ * @param <R> Type of result when the edit is finished
+ */
+@SuppressWarnings("unused")
+public class EditTask<R> implements TickScheduler.TickTask {
+
+    private static final AtomicInteger TASK_ID = new AtomicInteger();
+    // Amount of work units ahead of the current one to load chunks for
+    private static final int PREFETCH_UNITS = 16;
+    // Max time to wait for the chunk of the next work unit to load
+    private static final long LOAD_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * Create and schedule a new edit task over all chunks within a box
+     *
+     * @param box          Box to edit
+     * @param budgetMillis Max milliseconds to spend per tick
+     * @param unit         Work to apply to a chunk (receives a packed {@link ChunkPos})
+     * @param finisher     Called on completion to create the result
+     * @param <R>          Type of result
+     * @return Scheduled edit task
+     */
+    @NotNull
+    public static <R> EditTask<R> schedule(@NotNull BoundingBox box, double budgetMillis, @NotNull LongConsumer unit, @NotNull Supplier<R> finisher) {
+        return schedule(getChunks(box), budgetMillis, unit, finisher);
+    }
+
+    /**
+     * Create and schedule a new edit task over all chunks within a box, loading chunks asynchronously ahead of time
+     * <p>Each work unit is only applied once its chunk is loaded, so units may use
+     * {@link net.minecraft.server.level.ServerChunkCache#getChunkNow(int, int)} without loading chunks themselves.</p>
+     *
+     * @param world        World to load chunks in
+     * @param box          Box to edit
+     * @param budgetMillis Max milliseconds to spend per tick
+     * @param unit         Work to apply to a loaded chunk (receives a packed {@link ChunkPos})
+     * @param finisher     Called on completion to create the result
+     * @param <R>          Type of result
+     * @return Scheduled edit task
+     */
+    @NotNull
+    public static <R> EditTask<R> schedule(@NotNull World world, @NotNull BoundingBox box, double budgetMillis, @NotNull LongConsumer unit, @NotNull Supplier<R> finisher) {
+        EditTask<R> task = new EditTask<>(getChunks(box), budgetMillis, unit, finisher, world);
+        TickScheduler.schedule(task);
+        return task;
+    }
+
+    private static long[] getChunks(BoundingBox box) {
+        int minX = SectionPos.blockToSectionCoord(box.minX());
+        int maxX = SectionPos.blockToSectionCoord(box.maxX());
+        int minZ = SectionPos.blockToSectionCoord(box.minZ());
+        int maxZ = SectionPos.blockToSectionCoord(box.maxZ());
+
+        long[] units = new long[(maxX - minX + 1) * (maxZ - minZ + 1)];
+        int i = 0;
+        for (int z = minZ; z <= maxZ; z++) {
+            for (int x = minX; x <= maxX; x++) {
+                units[i++] = ChunkPos.asLong(x, z);
+            }
+        }
+        return units;
+    }
+
+    /**
+     * Create and schedule a new task over specific chunks
+     * <p>Chunks are processed in the order they are given.</p>
+     *
+     * @param chunks       Packed {@link ChunkPos ChunkPositions} to process
+     * @param budgetMillis Max milliseconds to spend per tick
+     * @param unit         Work to apply to a chunk (receives a packed {@link ChunkPos})
+     * @param finisher     Called on completion to create the result
+     * @param <R>          Type of result
+     * @return Scheduled task
+     */
+    @NotNull
+    public static <R> EditTask<R> schedule(long @NotNull [] chunks, double budgetMillis, @NotNull LongConsumer unit, @NotNull Supplier<R> finisher) {
+        EditTask<R> task = new EditTask<>(chunks, budgetMillis, unit, finisher, null);
+        TickScheduler.schedule(task);
+        return task;
+    }
+
+    private final CompletableFuture<R> future = new CompletableFuture<>();
+    private final long[] units;
+    private final long budgetNanos;
+    private final LongConsumer unit;
+    private final Supplier<R> finisher;
+    private volatile int processedUnits;
+    // Only set when chunks are loaded ahead of time
+    private final World world;
+    private final ServerLevel level;
+    private final NamespacedKey holder;
+    // Prefetched chunks which weren't applied yet, and those of them which have a ticket
+    private final LongSet pending = new LongOpenHashSet();
+    private final LongSet ticketed = new LongOpenHashSet();
+    private int prefetchIndex;
+    // Time the chunk of the next work unit was first waited for, 0 if not waiting
+    private long waitingSince;
+
+    private EditTask(long[] units, double budgetMillis, LongConsumer unit, Supplier<R> finisher, @Nullable World world) {
+        this.units = units;
+        this.budgetNanos = Math.max(1L, (long) (budgetMillis * TimeUnit.MILLISECONDS.toNanos(1)));
+        this.unit = unit;
+        this.finisher = finisher;
+        this.world = world;
+        this.level = world != null ? McUtils.getServerLevel(world) : null;
+        this.holder = world != null ? new NamespacedKey("nms_api", "edit_task_" + TASK_ID.incrementAndGet()) : null;
+    }
+
+    @Override
+    public boolean tick() {
+        // Cancelled or otherwise completed from the outside
+        if (this.future.isDone()) {
+            releaseTickets();
+            return true;
+        }
+
+        try {
+            long end = System.nanoTime() + this.budgetNanos;
+            int index = this.processedUnits;
+            prefetch(index);
+            while (index < this.units.length) {
+                long chunkPos = this.units[index];
+                // Wait for the chunk to finish loading instead of loading it within the budget
+                if (this.level != null && this.level.getChunkSource().getChunkNow(ChunkPos.getX(chunkPos), ChunkPos.getZ(chunkPos)) == null) {
+                    long now = System.nanoTime();
+                    if (this.waitingSince == 0) {
+                        this.waitingSince = now;
+                    } else if (now - this.waitingSince > LOAD_TIMEOUT_NANOS) {
+                        throw new TimeoutException("Timed out loading chunk " + ChunkPos.getX(chunkPos) + "," + ChunkPos.getZ(chunkPos));
+                    }
+                    break;
+                }
+                this.waitingSince = 0;
+
+                this.unit.accept(chunkPos);
+                this.processedUnits = ++index;
+                releaseTicket(chunkPos);
+                if (System.nanoTime() >= end) break;
+            }
+            if (index < this.units.length) {
+                prefetch(index);
+                return false;
+            }
+            this.future.complete(this.finisher.get());
+        } catch (Throwable throwable) {
+            this.future.completeExceptionally(throwable);
+        }
+        releaseTickets();
+        return true;
+    }
+
+    private void prefetch(int index) {
+        if (this.world == null) return;
+        int prefetchEnd = Math.min(this.units.length, index + PREFETCH_UNITS);
+        while (this.prefetchIndex < prefetchEnd) {
+            long chunkPos = this.units[this.prefetchIndex++];
+            int x = ChunkPos.getX(chunkPos);
+            int z = ChunkPos.getZ(chunkPos);
+            this.pending.add(chunkPos);
+            if (this.level.getChunkSource().getChunkNow(x, z) != null) {
+                addTicket(chunkPos);
+            } else {
+                // Callback runs on the main thread
+                this.world.getChunkAtAsync(x, z, true).whenComplete((chunk, throwable) -> {
+                    if (throwable != null || chunk == null) {
+                        // The unit would wait for this chunk forever, fail the edit instead
+                        this.future.completeExceptionally(new IllegalStateException("Chunk " + x + "," + z + " could not be loaded", throwable));
+                        return;
+                    }
+                    addTicket(chunkPos);
+                });
+            }
+        }
+    }
+
+    private void addTicket(long chunkPos) {
+        // Don't keep chunks loaded for finished tasks or units which were already applied
+        if (this.future.isDone() || !this.pending.contains(chunkPos)) return;
+        if (this.ticketed.add(chunkPos)) {
+            ChunkTickets.add(this.level, ChunkPos.getX(chunkPos), ChunkPos.getZ(chunkPos), this.holder, false);
+        }
+    }
+
+    private void releaseTicket(long chunkPos) {
+        if (this.level == null) return;
+        this.pending.remove(chunkPos);
+        if (!this.ticketed.remove(chunkPos)) return;
+        ChunkTickets.remove(this.level, ChunkPos.getX(chunkPos), ChunkPos.getZ(chunkPos), this.holder, false);
+    }
+
+    private void releaseTickets() {
+        if (this.level == null) return;
+        this.pending.clear();
+        for (long chunkPos : this.ticketed) {
+            ChunkTickets.remove(this.level, ChunkPos.getX(chunkPos), ChunkPos.getZ(chunkPos), this.holder, false);
+        }
+        this.ticketed.clear();
+    }
+
+    /**
+     * Get the future which completes when this edit is finished
+     * <p>The future will be cancelled if this edit is cancelled.</p>
+     *
+     * @return Future of the result of this edit
+     */
+    @NotNull
+    public CompletableFuture<R> getFuture() {
+        return this.future;
+    }
+
+    /**
+     * Get the total amount of work units (chunks) in this edit
+     *
+     * @return Total amount of work units
+     */
+    public int getTotalUnits() {
+        return this.units.length;
+    }
+
+    /**
+     * Get the amount of work units (chunks) which have been applied
+     *
+     * @return Amount of applied work units
+     */
+    public int getProcessedUnits() {
+        return this.processedUnits;
+    }
+
+    /**
+     * Get the progress of this edit
+     *
+     * @return Progress between 0 and 1
+     */
+    public double getProgress() {
+        if (this.units.length == 0) return 1;
+        return (double) this.processedUnits / this.units.length;
+    }
+
+    /**
+     * Cancel this edit
+     * <p>Work units which have already been applied will not be reverted.</p>
+     *
+     * @return True if cancelled, false if the edit was already finished
+     */
+    public boolean cancel() {
+        return this.future.cancel(false);
+    }
+
+    /**
+     * Check if this edit was cancelled
+     *
+     * @return True if cancelled
+     */
+    public boolean isCancelled() {
+        return this.future.isCancelled();
+    }
+
+    /**
+     * Check if this edit is finished, either by completing, failing or being cancelled
+     *
+     * @return True if finished
+     */
+    public boolean isDone() {
+        return this.future.isDone();
+    }
+
+    @Override
+    public String toString() {
+        return "EditTask{units=" + this.processedUnits + "/" + this.units.length + "}";
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.shanebeestudios.nms.api.world.edit;
+
+/**
+ * Result of a bulk block edit
+ */
+@SuppressWarnings("unused")
+public class FillResult {
+
+    private final int changedBlocks;
+    private final int changedSections;
+    private final int changedChunks;
+
+    FillResult(int changedBlocks, int changedSections, int changedChunks) {
+        this.changedBlocks = changedBlocks;
+        this.changedSections = changedSections;
+        this.changedChunks = changedChunks;
+    }
+
+    /**
+     * Get the amount of blocks which were changed
+     *
+     * @return Amount of changed blocks
+     */
+    public int getChangedBlocks() {
+        return this.changedBlocks;
+    }
+
+    /**
+     * Get the amount of chunk sections which had at least one block changed
+     *
+     * @return Amount of changed sections
+     */
+    public int getChangedSections() {
+        return this.changedSections;
+    }
+
+    /**
+     * Get the amount of chunks which had at least one block changed
+     *
+     * @return Amount of changed chunks
+     */
+    public int getChangedChunks() {
+        return this.changedChunks;
+    }
+
+    @Override
+    public String toString() {
+        return "FillResult{blocks=" + this.changedBlocks + ",sections=" + this.changedSections + ",chunks=" + this.changedChunks + "}";
+    }
+
+}
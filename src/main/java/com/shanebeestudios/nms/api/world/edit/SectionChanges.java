@@ -0,0 +1,28 @@
+package com.shanebeestudios.nms.api.world.edit;
+
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Compact set of changes for a single chunk section
+ * <p>Positions are packed the same way as {@link net.minecraft.core.SectionPos#sectionRelativePos(net.minecraft.core.BlockPos)},
+ * and each position has an index into a small palette of states.</p>
+ */
+final class SectionChanges {
+
+    final long sectionPos;
+    final short[] positions;
+    final short[] states;
+    final BlockState[] palette;
+
+    SectionChanges(long sectionPos, short[] positions, short[] states, BlockState[] palette) {
+        this.sectionPos = sectionPos;
+        this.positions = positions;
+        this.states = states;
+        this.palette = palette;
+    }
+
+    int size() {
+        return this.positions.length;
+    }
+
+}
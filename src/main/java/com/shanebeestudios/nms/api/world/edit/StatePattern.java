@@ -0,0 +1,37 @@
+package com.shanebeestudios.nms.api.world.edit;
+
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Pattern used to decide which state a block will be changed to
+ * <p>Patterns may be evaluated off the main thread and in parallel, so they must not touch the world.</p>
+ */
+@FunctionalInterface
+public interface StatePattern {
+
+    /**
+     * Create a pattern which always returns the same state
+     *
+     * @param state State to return
+     * @return Pattern of a single state
+     */
+    @NotNull
+    static StatePattern of(@NotNull BlockState state) {
+        return (x, y, z, current) -> state;
+    }
+
+    /**
+     * Get the state a block should be changed to
+     *
+     * @param x       X coordinate of block
+     * @param y       Y coordinate of block
+     * @param z       Z coordinate of block
+     * @param current Current state of block
+     * @return State to change to, or null to leave the block unchanged
+     */
+    @Nullable
+    BlockState getState(int x, int y, int z, @NotNull BlockState current);
+
+}
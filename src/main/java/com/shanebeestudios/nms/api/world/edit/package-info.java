@@ -0,0 +1,4 @@
+/**
+ * Api relating to bulk editing a Minecraft World
+ */
+package com.shanebeestudios.nms.api.world.edit;
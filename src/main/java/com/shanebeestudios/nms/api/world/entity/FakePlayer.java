@@ -1,19 +1,24 @@
 package com.shanebeestudios.nms.api.world.entity;
 
+import com.shanebeestudios.nms.api.server.TickScheduler;
 import com.shanebeestudios.nms.api.util.McUtils;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientGamePacketListener;
 import net.minecraft.network.protocol.game.ClientboundAddEntityPacket;
+import net.minecraft.network.protocol.game.ClientboundEntityPositionSyncPacket;
 import net.minecraft.network.protocol.game.ClientboundMoveEntityPacket;
 import net.minecraft.network.protocol.game.ClientboundPlayerInfoRemovePacket;
 import net.minecraft.network.protocol.game.ClientboundPlayerInfoUpdatePacket;
 import net.minecraft.network.protocol.game.ClientboundPlayerInfoUpdatePacket.Entry;
 import net.minecraft.network.protocol.game.ClientboundRemoveEntitiesPacket;
 import net.minecraft.network.protocol.game.ClientboundRotateHeadPacket;
-import net.minecraft.server.MinecraftServer;
-import net.minecraft.server.level.ChunkMap;
+import net.minecraft.network.protocol.game.VecDeltaCodec;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.server.network.ServerGamePacketListenerImpl;
 import net.minecraft.util.Mth;
 import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.PositionMoveRotation;
 import net.minecraft.world.level.GameType;
 import net.minecraft.world.phys.Vec3;
 import org.bukkit.Location;
@@ -21,24 +26,57 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Represents a fake {@link ServerPlayer}
  * <p>
  * Can create in {@link PlayerApi#spawnFakePlayer(String, Location)}
  * </p>
+ * <p>Packets are only sent to viewers, which are the players who have the chunk of this fake player loaded
+ * and are within {@link #getTrackingRange() tracking range}. Viewers are refreshed every tick,
+ * players entering range are sent the fake player and players leaving range have it removed.</p>
  */
 @SuppressWarnings("unused")
 public class FakePlayer {
 
+    private static final AtomicBoolean TRACKING = new AtomicBoolean(false);
+    // Players in range of the fake player being updated, reused as viewers are only updated on the main thread
+    private static final Set<ServerPlayer> IN_RANGE = new ReferenceOpenHashSet<>();
+
+    private static void startTracking() {
+        if (!TRACKING.compareAndSet(false, true)) return;
+        TickScheduler.schedule(() -> {
+            FakePlayerSpatialIndex.pruneUnloaded();
+            for (FakePlayer fakePlayer : PlayerApi.FAKE_PLAYERS.getAll()) {
+                // Attached entities move on their own
+                if (fakePlayer.attachedEntity != null) FakePlayerSpatialIndex.update(fakePlayer);
+                fakePlayer.updateViewers(false);
+            }
+            return false;
+        });
+    }
+
     private final ServerPlayer fakeServerPlayer;
     private Entity attachedEntity;
     private final Entry fakePlayerEntry;
-    private final int id;
     private McPlayer mcPlayer;
     private McEntity attachedMcEntity;
+    private final Set<ServerPlayer> viewers = new ReferenceOpenHashSet<>();
+    private boolean tracked = false;
+    private boolean listed = true;
+    private int trackingRange = -1;
+    // Last position sent to viewers, relative moves are encoded against this
+    private final VecDeltaCodec positionCodec = new VecDeltaCodec();
+    int movementSlot = -1;
+    // Bucket of this fake player in the spatial index, null level if not indexed
+    ServerLevel indexedLevel;
+    long indexedChunk;
 
     FakePlayer(ServerPlayer serverPlayer) {
         this(serverPlayer, null);
@@ -49,8 +87,8 @@ public class FakePlayer {
         this.fakeServerPlayer = serverPlayer;
         this.fakePlayerEntry = new Entry(this.fakeServerPlayer.getUUID(), this.fakeServerPlayer.getGameProfile(), true, 0,
             GameType.CREATIVE, this.fakeServerPlayer.getDisplayName(), true, /*Is 0 what we want?*/ 0,null);
-        this.id = serverPlayer.getId();
         this.attachedEntity = attachedEntity;
+        startTracking();
     }
 
     /**
@@ -111,14 +149,16 @@ public class FakePlayer {
      * @param entity Entity to attach
      */
     public void attach(Entity entity) {
+        MovementEngine.stop(this);
         if (this.attachedEntity != null) this.attachedEntity.discard();
         this.attachedEntity = entity;
         this.fakeServerPlayer.absMoveTo(entity.getX(), entity.getY(), entity.getZ());
 
-        ClientboundRemoveEntitiesPacket removePacket = new ClientboundRemoveEntitiesPacket(
-            entity.getId(), this.fakeServerPlayer.getId());
-        MinecraftServer.getServer().getPlayerList().players.forEach(p -> p.connection.send(removePacket));
+        int oldId = this.fakeServerPlayer.getId();
+        sendToViewers(new ClientboundRemoveEntitiesPacket(entity.getId(), oldId));
         this.fakeServerPlayer.setId(entity.getId());
+        PlayerApi.FAKE_PLAYERS.updateId(this, oldId);
+        FakePlayerSpatialIndex.update(this);
         update();
     }
 
@@ -136,107 +176,238 @@ public class FakePlayer {
     /**
      * Teleport this player to another location
      * <p>Currently does not support changing worlds/levels.</p>
+     * <p>Stops moving along a path of the {@link MovementEngine}.</p>
      * <p>NOTE: If there is an attached entity, its best to just teleport that entity instead.</p>
      *
      * @param location Location to teleport to
      */
     public void teleport(@NotNull Location location) {
-        Entity entityToMove = this.attachedEntity != null ? this.attachedEntity : this.fakeServerPlayer;
+        MovementEngine.stop(this);
+        Entity entityToMove = getMovingEntity();
         entityToMove.absMoveTo(location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch());
+        FakePlayerSpatialIndex.update(this);
         if (this.attachedEntity == null) update();
     }
 
     /**
      * Move this player to a new location
-     * <p>NOTE: Should be &lt;= 8 blocks, this is used for general player movement, not teleporting</p>
+     * <p>Movement packets are queued and sent to players in one bundle at the end of the tick, see {@link PacketBatcher}.
+     * Moves of up to 8 blocks are sent as relative moves, larger moves are sent as a position sync.</p>
+     * <p>To move along a path every tick, see {@link MovementEngine}.</p>
      * <p>NOTE: If there is an attached entity, just move/teleport that entity instead.</p>
      *
      * @param location Location to move player to
      */
     public void moveTo(@NotNull Location location) {
-        Entity entityToMove = this.attachedEntity != null ? this.attachedEntity : this.fakeServerPlayer;
-        entityToMove.absMoveTo(location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch());
+        move(location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch());
+    }
+
+    void move(double x, double y, double z, float yaw, float pitch) {
+        // If attached entity is found, don't send packets, the server tracks that entity
+        if (this.attachedEntity != null) {
+            this.attachedEntity.absMoveTo(x, y, z, yaw, pitch);
+            FakePlayerSpatialIndex.update(this);
+            return;
+        }
+        ServerPlayer player = this.fakeServerPlayer;
+        player.absMoveTo(x, y, z, yaw, pitch);
+        player.setYHeadRot(yaw);
+        FakePlayerSpatialIndex.update(this);
+
+        Vec3 position = player.position();
+        long deltaX = this.positionCodec.encodeX(position);
+        long deltaY = this.positionCodec.encodeY(position);
+        long deltaZ = this.positionCodec.encodeZ(position);
+        byte packedYaw = (byte) Mth.floor(yaw * 256.0F / 360.0F);
+        byte packedPitch = (byte) Mth.floor(pitch * 256.0F / 360.0F);
+
+        Packet<ClientGamePacketListener> movePacket;
+        if (deltaX < Short.MIN_VALUE || deltaX > Short.MAX_VALUE || deltaY < Short.MIN_VALUE || deltaY > Short.MAX_VALUE
+            || deltaZ < Short.MIN_VALUE || deltaZ > Short.MAX_VALUE) {
+            // Too far for a relative move
+            movePacket = new ClientboundEntityPositionSyncPacket(player.getId(), PositionMoveRotation.of(player), true);
+        } else if (deltaX == 0 && deltaY == 0 && deltaZ == 0) {
+            movePacket = new ClientboundMoveEntityPacket.Rot(player.getId(), packedYaw, packedPitch, true);
+        } else {
+            movePacket = new ClientboundMoveEntityPacket.PosRot(player.getId(), (short) deltaX, (short) deltaY, (short) deltaZ, packedYaw, packedPitch, true);
+        }
+        this.positionCodec.setBase(position);
+        sendToViewers(List.of(movePacket, new ClientboundRotateHeadPacket(player, packedYaw)));
+    }
+
+    Entity getMovingEntity() {
+        return this.attachedEntity != null ? this.attachedEntity : this.fakeServerPlayer;
+    }
+
+    private List<Packet<? super ClientGamePacketListener>> getUpdatePackets() {
+        List<Packet<? super ClientGamePacketListener>> packets = new ArrayList<>(3);
+        packets.add(new ClientboundPlayerInfoUpdatePacket(EnumSet.of(ClientboundPlayerInfoUpdatePacket.Action.ADD_PLAYER, ClientboundPlayerInfoUpdatePacket.Action.UPDATE_LISTED), this.fakePlayerEntry));
+        packets.add(new ClientboundAddEntityPacket(this.fakeServerPlayer, 0, this.fakeServerPlayer.blockPosition()));
+        // The player info is needed for the skin, remove it again once the entity is added
+        if (!this.listed) packets.add(new ClientboundPlayerInfoRemovePacket(List.of(this.fakeServerPlayer.getUUID())));
+        return packets;
+    }
+
+    private List<Packet<? super ClientGamePacketListener>> getRemovePackets() {
+        return List.of(
+            new ClientboundRemoveEntitiesPacket(this.fakeServerPlayer.getId()),
+            new ClientboundPlayerInfoRemovePacket(List.of(this.fakeServerPlayer.getUUID())));
+    }
+
+    private void sendToViewers(@NotNull Packet<? super ClientGamePacketListener> packet) {
+        for (ServerPlayer viewer : this.viewers) {
+            PacketBatcher.queue(viewer, packet);
+        }
+    }
+
+    private void sendToViewers(@NotNull List<? extends Packet<? super ClientGamePacketListener>> packets) {
+        for (ServerPlayer viewer : this.viewers) {
+            PacketBatcher.queue(viewer, packets);
+        }
+    }
+
+    /**
+     * Re-send this fake player to its viewers, such as after its skin changed
+     * <p>The client ignores new player info for a player it already knows, so the player is removed first.</p>
+     */
+    void refresh() {
+        if (this.viewers.isEmpty()) return;
+        List<Packet<? super ClientGamePacketListener>> packets = new ArrayList<>(getRemovePackets());
+        packets.addAll(getUpdatePackets());
+        sendToViewers(packets);
+    }
+
+    private void updateViewers(boolean resend) {
+        if (!this.tracked) {
+            // Viewers added with update(Player) aren't range checked, but don't keep players who left
+            if (!this.viewers.isEmpty()) this.viewers.removeIf(ServerPlayer::hasDisconnected);
+            return;
+        }
+
+        Entity entity = getMovingEntity();
+        ServerLevel level = (ServerLevel) entity.level();
+        double range = getTrackingRange();
+        double rangeSqr = range * range;
+
+        Set<ServerPlayer> inRange = IN_RANGE;
+        try {
+            for (ServerPlayer player : level.getChunkSource().chunkMap.getPlayers(entity.chunkPosition(), false)) {
+                if (player.hasDisconnected()) continue;
+                double dx = player.getX() - entity.getX();
+                double dz = player.getZ() - entity.getZ();
+                if (dx * dx + dz * dz <= rangeSqr) inRange.add(player);
+            }
+
+            // Leaving range
+            Iterator<ServerPlayer> iterator = this.viewers.iterator();
+            List<Packet<? super ClientGamePacketListener>> removePackets = null;
+            while (iterator.hasNext()) {
+                ServerPlayer viewer = iterator.next();
+                if (inRange.contains(viewer)) continue;
+                iterator.remove();
+                if (viewer.hasDisconnected()) continue;
+                if (removePackets == null) removePackets = getRemovePackets();
+                PacketBatcher.queue(viewer, removePackets);
+            }
 
-        // If attached entity is found, don't send packets
-        if (this.attachedEntity != null) return;
-        double oldX = this.fakeServerPlayer.getX();
-        double oldY = this.fakeServerPlayer.getY();
-        double oldZ = this.fakeServerPlayer.getZ();
-
-        Vec3 vec3 = new Vec3(location.getX() - oldX, location.getY() - oldY, location.getZ() - oldZ);
-        short x = (short) this.fakeServerPlayer.getPositionCodec().encodeX(vec3);
-        short y = (short) this.fakeServerPlayer.getPositionCodec().encodeY(vec3);
-        short z = (short) this.fakeServerPlayer.getPositionCodec().encodeZ(vec3);
-        byte yaw = (byte) Mth.floor(this.fakeServerPlayer.getYRot() * 256.0F / 360.0F);
-        byte pitch = (byte) Mth.floor(this.fakeServerPlayer.getXRot() * 256.0F / 360.0F);
-
-        ClientboundMoveEntityPacket.PosRot positionPacket = new ClientboundMoveEntityPacket.PosRot(
-            this.id, x, y, z, yaw, pitch, true);
-        MinecraftServer.getServer().getPlayerList().players.forEach(p -> p.connection.send(positionPacket));
-
-        byte headRot = (byte) Mth.floor(this.fakeServerPlayer.getYHeadRot() * 256.0F / 360.0F);
-        ClientboundRotateHeadPacket rotateHeadPacket = new ClientboundRotateHeadPacket(this.fakeServerPlayer, headRot);
-        MinecraftServer.getServer().getPlayerList().players.forEach(p -> p.connection.send(rotateHeadPacket));
+            // Entering range
+            List<Packet<? super ClientGamePacketListener>> updatePackets = null;
+            for (ServerPlayer player : inRange) {
+                if (this.viewers.add(player) || resend) {
+                    if (updatePackets == null) updatePackets = getUpdatePackets();
+                    PacketBatcher.queue(player, updatePackets);
+                }
+            }
+        } finally {
+            inRange.clear();
+        }
     }
 
-    private void update(ServerPlayer serverPlayer) {
-        ServerGamePacketListenerImpl connection = serverPlayer.connection;
-        connection.send(new ClientboundPlayerInfoUpdatePacket(EnumSet.of(ClientboundPlayerInfoUpdatePacket.Action.ADD_PLAYER), this.fakePlayerEntry));
-        connection.send(new ClientboundPlayerInfoUpdatePacket(EnumSet.of(ClientboundPlayerInfoUpdatePacket.Action.UPDATE_LISTED), this.fakePlayerEntry));
-        ChunkMap.TrackedEntity trackedEntity = serverPlayer.serverLevel().getChunkSource().chunkMap.entityMap.get(serverPlayer.getId());
+    /**
+     * Get the players who currently see this fake player
+     *
+     * @return Unmodifiable list of viewers
+     */
+    @NotNull
+    public List<Player> getViewers() {
+        return this.viewers.stream().map(viewer -> (Player) viewer.getBukkitEntity()).toList();
+    }
 
-        ClientboundAddEntityPacket addEntityPacket = new ClientboundAddEntityPacket(this.fakeServerPlayer, 0, this.fakeServerPlayer.blockPosition());
-        connection.send(addEntityPacket);
+    /**
+     * Get the range in blocks in which players see this fake player
+     * <p>Defaults to the player tracking range of the world.</p>
+     *
+     * @return Tracking range in blocks
+     */
+    public int getTrackingRange() {
+        if (this.trackingRange >= 0) return this.trackingRange;
+        return getMovingEntity().level().spigotConfig.playerTrackingRange;
+    }
+
+    /**
+     * Set the range in blocks in which players see this fake player
+     * <p>Players also need to have the chunk of this fake player loaded to see it.</p>
+     *
+     * @param trackingRange Tracking range in blocks, or -1 to use the player tracking range of the world
+     */
+    public void setTrackingRange(int trackingRange) {
+        this.trackingRange = trackingRange;
     }
 
     /**
      * Update for a single Player
+     * <p>Packets are sent right away in one bundle, and the player becomes a viewer.
+     * Once this fake player is {@link #update() updated}, the player is removed again when out of range.
+     * Until then, the player is only removed again when disconnecting.</p>
      *
      * @param player Player to update for
      */
     public void update(@NotNull Player player) {
         ServerPlayer serverPlayer = McUtils.getServerPlayer(player);
-        update(serverPlayer);
+        this.viewers.add(serverPlayer);
+        PacketBatcher.send(serverPlayer, getUpdatePackets());
     }
 
     /**
-     * Update for all players online
+     * Update for all viewers
+     * <p>Viewers are refreshed first, and will be kept up to date every tick from now on.
+     * Packets are queued and sent to players in one bundle at the end of the tick, see {@link PacketBatcher}.</p>
      */
     public void update() {
-        MinecraftServer.getServer().getPlayerList().players.forEach(this::update);
+        this.tracked = true;
+        this.positionCodec.setBase(this.fakeServerPlayer.position());
+        updateViewers(true);
     }
 
     /**
      * Remove the player from the player list
      */
     public void removeFromPlayerList() {
-        MinecraftServer.getServer().getPlayerList().players.forEach(serverPlayer -> {
-            ServerGamePacketListenerImpl connection = serverPlayer.connection;
-            connection.send(new ClientboundPlayerInfoRemovePacket(List.of(this.fakeServerPlayer.getUUID())));
-        });
+        this.listed = false;
+        sendToViewers(new ClientboundPlayerInfoRemovePacket(List.of(this.fakeServerPlayer.getUUID())));
     }
 
     /**
      * Add the player to the player list
      */
     public void addToPlayerList() {
-        MinecraftServer.getServer().getPlayerList().players.forEach(serverPlayer -> {
-            ServerGamePacketListenerImpl connection = serverPlayer.connection;
-            connection.send(new ClientboundPlayerInfoUpdatePacket(EnumSet.of(ClientboundPlayerInfoUpdatePacket.Action.ADD_PLAYER, ClientboundPlayerInfoUpdatePacket.Action.UPDATE_LISTED), this.fakePlayerEntry));
-        });
+        this.listed = true;
+        sendToViewers(new ClientboundPlayerInfoUpdatePacket(EnumSet.of(ClientboundPlayerInfoUpdatePacket.Action.ADD_PLAYER, ClientboundPlayerInfoUpdatePacket.Action.UPDATE_LISTED), this.fakePlayerEntry));
     }
 
     /**
      * Remove this fake player
+     * <p>Fake players are removed automatically when their world is unloaded.</p>
+     * <p>NOTE: This must be called on the main thread.</p>
      */
     public void remove() {
-        PlayerApi.FAKE_PLAYERS.remove(this.fakeServerPlayer.getGameProfile().getName());
+        PlayerApi.FAKE_PLAYERS.remove(this);
+        MovementEngine.stop(this);
         if (this.attachedEntity != null) this.attachedEntity.discard();
-        MinecraftServer.getServer().getPlayerList().players.forEach(serverPlayer -> {
-            ServerGamePacketListenerImpl connection = serverPlayer.connection;
-            connection.send(new ClientboundRemoveEntitiesPacket(this.id));
-            connection.send(new ClientboundPlayerInfoRemovePacket(List.of(this.fakeServerPlayer.getUUID())));
-        });
+        // Queued as well, so this is sent after any movement/updates queued earlier this tick
+        sendToViewers(getRemovePackets());
+        this.viewers.clear();
+        this.tracked = false;
     }
 
     /**
@@ -0,0 +1,169 @@
+package com.shanebeestudios.nms.api.world.entity;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of all spawned {@link FakePlayer FakePlayers}
+ * <p>Fake players are indexed by name, UUID and entity id, so each lookup is a single map access.
+ * Lookups may be done from any thread, such as a netty thread resolving the entity id of an interact packet.</p>
+ * <p>{@link #getAll()} returns an immutable snapshot, which is only rebuilt on the first call after the registry changed.
+ * This makes iterating every tick cheap, and safe while fake players are added or removed,
+ * and spawning many fake players at once only rebuilds it once.</p>
+ * <p>Adding a fake player with the same name or UUID as a registered one {@link FakePlayer#remove() removes} the registered one.</p>
+ * <p>Fake players are registered when spawned with {@link PlayerApi} and unregistered when {@link FakePlayer#remove() removed}.
+ * Registered fake players are also kept in a spatial index, see {@link PlayerApi#getFakePlayersNear(org.bukkit.Location, double)}.
+ * Registering and unregistering updates that index as well, so it must be done on the main thread,
+ * which is checked.</p>
+ */
+@SuppressWarnings("unused")
+public class FakePlayerRegistry {
+
+    private final Map<String, FakePlayer> byName = new ConcurrentHashMap<>();
+    private final Map<UUID, FakePlayer> byUuid = new ConcurrentHashMap<>();
+    private final Map<Integer, FakePlayer> byId = new ConcurrentHashMap<>();
+    // Writes only happen on the main thread, the lock keeps them consistent with snapshots rebuilt on other threads
+    private final Object lock = new Object();
+    private volatile List<FakePlayer> snapshot = List.of();
+    private volatile boolean dirty = false;
+
+    FakePlayerRegistry() {
+    }
+
+    /**
+     * Get a fake player by name
+     *
+     * @param name Name of fake player
+     * @return Fake player if registered, otherwise null
+     */
+    @Nullable
+    public FakePlayer get(@NotNull String name) {
+        return this.byName.get(name);
+    }
+
+    /**
+     * Get a fake player by UUID
+     *
+     * @param uuid UUID of fake player
+     * @return Fake player if registered, otherwise null
+     */
+    @Nullable
+    public FakePlayer get(@NotNull UUID uuid) {
+        return this.byUuid.get(uuid);
+    }
+
+    /**
+     * Get a fake player by the entity id clients know it by
+     * <p>If the fake player is attached to an entity, this is the id of that entity.</p>
+     *
+     * @param entityId Entity id of fake player
+     * @return Fake player if registered, otherwise null
+     */
+    @Nullable
+    public FakePlayer get(int entityId) {
+        return this.byId.get(entityId);
+    }
+
+    /**
+     * Check if an entity id belongs to a fake player
+     *
+     * @param entityId Entity id to check
+     * @return True if the entity id belongs to a fake player
+     */
+    public boolean contains(int entityId) {
+        return this.byId.containsKey(entityId);
+    }
+
+    /**
+     * Get an immutable snapshot of all fake players
+     * <p>The snapshot is not affected by fake players added or removed afterwards.</p>
+     *
+     * @return Snapshot of all fake players
+     */
+    @NotNull
+    public List<FakePlayer> getAll() {
+        if (this.dirty) {
+            synchronized (this.lock) {
+                if (this.dirty) {
+                    this.snapshot = List.copyOf(this.byName.values());
+                    this.dirty = false;
+                }
+            }
+        }
+        return this.snapshot;
+    }
+
+    /**
+     * Get the amount of fake players
+     *
+     * @return Amount of fake players
+     */
+    public int size() {
+        return this.byName.size();
+    }
+
+    void add(@NotNull FakePlayer fakePlayer) {
+        FakePlayerSpatialIndex.checkMainThread();
+        // A fake player with the same name or UUID is replaced, remove it so it doesn't linger for viewers
+        // Removing unregisters it again, so this is done outside the lock
+        FakePlayer previous = this.byName.get(getName(fakePlayer));
+        if (previous != null && previous != fakePlayer) previous.remove();
+        previous = this.byUuid.get(getUuid(fakePlayer));
+        if (previous != null && previous != fakePlayer) previous.remove();
+
+        synchronized (this.lock) {
+            this.byName.put(getName(fakePlayer), fakePlayer);
+            this.byUuid.put(getUuid(fakePlayer), fakePlayer);
+            this.byId.put(getId(fakePlayer), fakePlayer);
+            FakePlayerSpatialIndex.add(fakePlayer);
+            this.dirty = true;
+        }
+    }
+
+    void remove(@NotNull FakePlayer fakePlayer) {
+        FakePlayerSpatialIndex.checkMainThread();
+        synchronized (this.lock) {
+            if (unindex(fakePlayer)) this.dirty = true;
+        }
+    }
+
+    void updateId(@NotNull FakePlayer fakePlayer, int oldId) {
+        FakePlayerSpatialIndex.checkMainThread();
+        synchronized (this.lock) {
+            if (this.byName.get(getName(fakePlayer)) != fakePlayer) return;
+            this.byId.remove(oldId, fakePlayer);
+            this.byId.put(getId(fakePlayer), fakePlayer);
+        }
+    }
+
+    private boolean unindex(FakePlayer fakePlayer) {
+        boolean removed = this.byName.remove(getName(fakePlayer), fakePlayer);
+        this.byUuid.remove(getUuid(fakePlayer), fakePlayer);
+        this.byId.remove(getId(fakePlayer), fakePlayer);
+        FakePlayerSpatialIndex.remove(fakePlayer);
+        return removed;
+    }
+
+    private static String getName(FakePlayer fakePlayer) {
+        return fakePlayer.getServerPlayer().getGameProfile().getName();
+    }
+
+    private static UUID getUuid(FakePlayer fakePlayer) {
+        return fakePlayer.getServerPlayer().getUUID();
+    }
+
+    private static int getId(FakePlayer fakePlayer) {
+        return fakePlayer.getServerPlayer().getId();
+    }
+
+    @Override
+    public String toString() {
+        return "FakePlayerRegistry{size=" + size() + "}";
+    }
+
+}
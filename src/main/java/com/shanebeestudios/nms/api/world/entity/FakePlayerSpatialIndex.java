@@ -0,0 +1,156 @@
+package com.shanebeestudios.nms.api.world.entity;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.ChunkPos;
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spatial index of {@link FakePlayer FakePlayers}, bucketed by level and chunk
+ * <p>Each fake player is stored in the bucket of the chunk it is in, so box and radius queries
+ * only look at fake players in the chunks the query overlaps, instead of every fake player.</p>
+ * <p>Buckets are kept up to date by {@link FakePlayerRegistry} when fake players are added or removed,
+ * and by {@link FakePlayer} whenever it moves. Fake players attached to an entity are re-indexed every tick,
+ * as that entity moves on its own.</p>
+ * <p>Buckets of levels which were unloaded are dropped each tick with their fake players, see {@link #pruneUnloaded()}.</p>
+ * <p>NOTE: This must be used on the main thread, which is checked on every call.</p>
+ */
+final class FakePlayerSpatialIndex {
+
+    private FakePlayerSpatialIndex() {
+    }
+
+    private static final Map<ServerLevel, Long2ObjectMap<List<FakePlayer>>> BUCKETS = new IdentityHashMap<>();
+
+    static void checkMainThread() {
+        if (!Bukkit.isPrimaryThread()) {
+            throw new IllegalStateException("Fake players can only be indexed on the main thread");
+        }
+    }
+
+    static void add(@NotNull FakePlayer fakePlayer) {
+        checkMainThread();
+        if (fakePlayer.indexedLevel != null) return;
+        Entity entity = fakePlayer.getMovingEntity();
+        ServerLevel level = (ServerLevel) entity.level();
+        long chunk = entity.chunkPosition().toLong();
+        BUCKETS.computeIfAbsent(level, k -> new Long2ObjectOpenHashMap<>())
+            .computeIfAbsent(chunk, k -> new ArrayList<>(2))
+            .add(fakePlayer);
+        fakePlayer.indexedLevel = level;
+        fakePlayer.indexedChunk = chunk;
+    }
+
+    static void remove(@NotNull FakePlayer fakePlayer) {
+        checkMainThread();
+        ServerLevel level = fakePlayer.indexedLevel;
+        if (level == null) return;
+        Long2ObjectMap<List<FakePlayer>> chunks = BUCKETS.get(level);
+        if (chunks != null) {
+            List<FakePlayer> bucket = chunks.get(fakePlayer.indexedChunk);
+            if (bucket != null && bucket.remove(fakePlayer) && bucket.isEmpty()) {
+                chunks.remove(fakePlayer.indexedChunk);
+                if (chunks.isEmpty()) BUCKETS.remove(level);
+            }
+        }
+        fakePlayer.indexedLevel = null;
+    }
+
+    static void update(@NotNull FakePlayer fakePlayer) {
+        checkMainThread();
+        if (fakePlayer.indexedLevel == null) return;
+        Entity entity = fakePlayer.getMovingEntity();
+        if (entity.level() == fakePlayer.indexedLevel && entity.chunkPosition().toLong() == fakePlayer.indexedChunk) return;
+        remove(fakePlayer);
+        add(fakePlayer);
+    }
+
+    @NotNull
+    static List<FakePlayer> getWithin(@NotNull ServerLevel level, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        checkMainThread();
+        List<FakePlayer> fakePlayers = new ArrayList<>();
+        Long2ObjectMap<List<FakePlayer>> chunks = BUCKETS.get(level);
+        if (chunks == null) return fakePlayers;
+
+        int minChunkX = SectionPos.blockToSectionCoord(minX);
+        int minChunkZ = SectionPos.blockToSectionCoord(minZ);
+        int maxChunkX = SectionPos.blockToSectionCoord(maxX);
+        int maxChunkZ = SectionPos.blockToSectionCoord(maxZ);
+        long area = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+
+        if (area <= chunks.size()) {
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                    List<FakePlayer> bucket = chunks.get(ChunkPos.asLong(chunkX, chunkZ));
+                    if (bucket != null) addWithin(bucket, fakePlayers, minX, minY, minZ, maxX, maxY, maxZ);
+                }
+            }
+        } else {
+            // Huge boxes overlap more chunks than there are buckets, check the buckets instead
+            for (Long2ObjectMap.Entry<List<FakePlayer>> entry : chunks.long2ObjectEntrySet()) {
+                long chunk = entry.getLongKey();
+                int chunkX = ChunkPos.getX(chunk);
+                int chunkZ = ChunkPos.getZ(chunk);
+                if (chunkX < minChunkX || chunkX > maxChunkX || chunkZ < minChunkZ || chunkZ > maxChunkZ) continue;
+                addWithin(entry.getValue(), fakePlayers, minX, minY, minZ, maxX, maxY, maxZ);
+            }
+        }
+        return fakePlayers;
+    }
+
+    @NotNull
+    static List<FakePlayer> getNear(@NotNull ServerLevel level, double x, double y, double z, double radius) {
+        List<FakePlayer> fakePlayers = getWithin(level, x - radius, y - radius, z - radius, x + radius, y + radius, z + radius);
+        double radiusSqr = radius * radius;
+        fakePlayers.removeIf(fakePlayer -> fakePlayer.getMovingEntity().distanceToSqr(x, y, z) > radiusSqr);
+        return fakePlayers;
+    }
+
+    /**
+     * Remove fake players of levels which were unloaded, so those levels aren't kept in memory
+     */
+    static void pruneUnloaded() {
+        if (BUCKETS.isEmpty()) return;
+        MinecraftServer server = MinecraftServer.getServer();
+        List<ServerLevel> unloaded = null;
+        for (ServerLevel level : BUCKETS.keySet()) {
+            if (server.getLevel(level.dimension()) == level) continue;
+            if (unloaded == null) unloaded = new ArrayList<>(1);
+            unloaded.add(level);
+        }
+        if (unloaded == null) return;
+
+        for (ServerLevel level : unloaded) {
+            for (List<FakePlayer> bucket : BUCKETS.remove(level).values()) {
+                for (FakePlayer fakePlayer : bucket) {
+                    // Already dropped from the index, so removing doesn't touch the bucket being iterated
+                    fakePlayer.indexedLevel = null;
+                    fakePlayer.remove();
+                }
+            }
+        }
+    }
+
+    private static void addWithin(List<FakePlayer> bucket, List<FakePlayer> fakePlayers, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        for (FakePlayer fakePlayer : bucket) {
+            Entity entity = fakePlayer.getMovingEntity();
+            double x = entity.getX();
+            double y = entity.getY();
+            double z = entity.getZ();
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+                fakePlayers.add(fakePlayer);
+            }
+        }
+    }
+
+}
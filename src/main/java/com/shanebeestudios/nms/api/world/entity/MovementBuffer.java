@@ -0,0 +1,289 @@
+package com.shanebeestudios.nms.api.world.entity;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Positions and paths of many moving objects, stored as a struct of arrays
+ * <p>Each object has a slot, and each property of all objects is stored in its own array.
+ * {@link #tick()} moves every object towards its next waypoint in one pass over these arrays,
+ * which keeps the loop cache friendly even for thousands of objects.</p>
+ * <p>This has no dependencies on the server, see {@link MovementEngine} for moving {@link FakePlayer FakePlayers}.</p>
+ * <p>NOTE: This is not thread safe.</p>
+ */
+@SuppressWarnings("unused")
+public final class MovementBuffer {
+
+    /**
+     * State of a slot which didn't move this tick
+     */
+    public static final byte IDLE = 0;
+    /**
+     * State of a slot which moved this tick
+     */
+    public static final byte MOVED = 1;
+    /**
+     * State of a slot which moved this tick and reached the last waypoint of its path
+     */
+    public static final byte FINISHED = 2;
+
+    private int size;
+    private double[] x;
+    private double[] y;
+    private double[] z;
+    private float[] yaw;
+    private float[] pitch;
+    private double[] speed;
+    // Waypoints of each slot as x, y, z triples
+    private double[][] paths;
+    private int[] waypoint;
+    private boolean[] loop;
+    private byte[] state;
+
+    /**
+     * Create a new buffer
+     *
+     * @param capacity Initial amount of slots, grows when needed
+     */
+    public MovementBuffer(int capacity) {
+        capacity = Math.max(1, capacity);
+        this.x = new double[capacity];
+        this.y = new double[capacity];
+        this.z = new double[capacity];
+        this.yaw = new float[capacity];
+        this.pitch = new float[capacity];
+        this.speed = new double[capacity];
+        this.paths = new double[capacity][];
+        this.waypoint = new int[capacity];
+        this.loop = new boolean[capacity];
+        this.state = new byte[capacity];
+    }
+
+    /**
+     * Add an object to this buffer
+     *
+     * @param x     Current X coordinate
+     * @param y     Current Y coordinate
+     * @param z     Current Z coordinate
+     * @param yaw   Current yaw
+     * @param pitch Current pitch
+     * @return Slot of object
+     */
+    public int add(double x, double y, double z, float yaw, float pitch) {
+        if (this.size == this.x.length) grow();
+        int slot = this.size++;
+        this.x[slot] = x;
+        this.y[slot] = y;
+        this.z[slot] = z;
+        this.yaw[slot] = yaw;
+        this.pitch[slot] = pitch;
+        this.speed[slot] = 0;
+        this.paths[slot] = null;
+        this.waypoint[slot] = 0;
+        this.loop[slot] = false;
+        this.state[slot] = IDLE;
+        return slot;
+    }
+
+    /**
+     * Set the path of a slot
+     *
+     * @param slot  Slot to set path for
+     * @param path  Waypoints as x, y, z triples
+     * @param speed Blocks to move per tick
+     * @param loop  Whether to start over at the first waypoint after reaching the last
+     */
+    public void setPath(int slot, double @NotNull [] path, double speed, boolean loop) {
+        checkSlot(slot);
+        if (path.length == 0 || path.length % 3 != 0) {
+            throw new IllegalArgumentException("Path needs to be made up of x, y, z triples");
+        }
+        this.paths[slot] = path;
+        this.speed[slot] = speed;
+        this.waypoint[slot] = 0;
+        this.loop[slot] = loop;
+    }
+
+    /**
+     * Remove a slot from this buffer
+     * <p>The last slot is moved into the removed slot to keep the arrays packed.</p>
+     *
+     * @param slot Slot to remove
+     * @return Previous index of the slot which was moved into the removed slot, or -1 if the last slot was removed
+     */
+    public int remove(int slot) {
+        checkSlot(slot);
+        int last = --this.size;
+        this.paths[slot] = null;
+        if (slot == last) return -1;
+
+        this.x[slot] = this.x[last];
+        this.y[slot] = this.y[last];
+        this.z[slot] = this.z[last];
+        this.yaw[slot] = this.yaw[last];
+        this.pitch[slot] = this.pitch[last];
+        this.speed[slot] = this.speed[last];
+        this.paths[slot] = this.paths[last];
+        this.waypoint[slot] = this.waypoint[last];
+        this.loop[slot] = this.loop[last];
+        this.state[slot] = this.state[last];
+        this.paths[last] = null;
+        return last;
+    }
+
+    /**
+     * Move every slot towards its next waypoint
+     * <p>Afterwards {@link #getState(int)} tells whether a slot moved.</p>
+     */
+    public void tick() {
+        double[] x = this.x;
+        double[] y = this.y;
+        double[] z = this.z;
+        for (int slot = 0; slot < this.size; slot++) {
+            double[] path = this.paths[slot];
+            if (path == null) {
+                this.state[slot] = IDLE;
+                continue;
+            }
+
+            int index = this.waypoint[slot] * 3;
+            double dx = path[index] - x[slot];
+            double dy = path[index + 1] - y[slot];
+            double dz = path[index + 2] - z[slot];
+            double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            double speed = this.speed[slot];
+
+            byte state = MOVED;
+            if (distance <= speed) {
+                // Reached waypoint, snap to it and continue with the next one
+                x[slot] = path[index];
+                y[slot] = path[index + 1];
+                z[slot] = path[index + 2];
+                int next = this.waypoint[slot] + 1;
+                if (next * 3 < path.length) {
+                    this.waypoint[slot] = next;
+                } else if (this.loop[slot]) {
+                    this.waypoint[slot] = 0;
+                } else {
+                    this.paths[slot] = null;
+                    state = FINISHED;
+                }
+            } else {
+                double scale = speed / distance;
+                x[slot] += dx * scale;
+                y[slot] += dy * scale;
+                z[slot] += dz * scale;
+            }
+
+            // Face the direction of movement
+            double horizontal = dx * dx + dz * dz;
+            if (horizontal > 1.0E-7) {
+                this.yaw[slot] = (float) (Math.atan2(dz, dx) * (180.0 / Math.PI)) - 90.0F;
+                this.pitch[slot] = (float) -(Math.atan2(dy, Math.sqrt(horizontal)) * (180.0 / Math.PI));
+            }
+            this.state[slot] = distance > 0 ? state : (state == FINISHED ? FINISHED : IDLE);
+        }
+    }
+
+    /**
+     * Get the amount of slots in this buffer
+     *
+     * @return Amount of slots
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Check if a slot has a path it is following
+     *
+     * @param slot Slot to check
+     * @return True if following a path
+     */
+    public boolean hasPath(int slot) {
+        checkSlot(slot);
+        return this.paths[slot] != null;
+    }
+
+    /**
+     * Get the state of a slot after the last {@link #tick()}
+     *
+     * @param slot Slot to get state of
+     * @return {@link #IDLE}, {@link #MOVED} or {@link #FINISHED}
+     */
+    public byte getState(int slot) {
+        return this.state[slot];
+    }
+
+    /**
+     * Get the X coordinate of a slot
+     *
+     * @param slot Slot to get coordinate of
+     * @return X coordinate
+     */
+    public double getX(int slot) {
+        return this.x[slot];
+    }
+
+    /**
+     * Get the Y coordinate of a slot
+     *
+     * @param slot Slot to get coordinate of
+     * @return Y coordinate
+     */
+    public double getY(int slot) {
+        return this.y[slot];
+    }
+
+    /**
+     * Get the Z coordinate of a slot
+     *
+     * @param slot Slot to get coordinate of
+     * @return Z coordinate
+     */
+    public double getZ(int slot) {
+        return this.z[slot];
+    }
+
+    /**
+     * Get the yaw of a slot
+     *
+     * @param slot Slot to get yaw of
+     * @return Yaw in degrees
+     */
+    public float getYaw(int slot) {
+        return this.yaw[slot];
+    }
+
+    /**
+     * Get the pitch of a slot
+     *
+     * @param slot Slot to get pitch of
+     * @return Pitch in degrees
+     */
+    public float getPitch(int slot) {
+        return this.pitch[slot];
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= this.size) {
+            throw new IndexOutOfBoundsException("Slot " + slot + " out of bounds for size " + this.size);
+        }
+    }
+
+    private void grow() {
+        int capacity = this.x.length * 2;
+        this.x = Arrays.copyOf(this.x, capacity);
+        this.y = Arrays.copyOf(this.y, capacity);
+        this.z = Arrays.copyOf(this.z, capacity);
+        this.yaw = Arrays.copyOf(this.yaw, capacity);
+        this.pitch = Arrays.copyOf(this.pitch, capacity);
+        this.speed = Arrays.copyOf(this.speed, capacity);
+        this.paths = Arrays.copyOf(this.paths, capacity);
+        this.waypoint = Arrays.copyOf(this.waypoint, capacity);
+        this.loop = Arrays.copyOf(this.loop, capacity);
+        this.state = Arrays.copyOf(this.state, capacity);
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.shanebeestudios.nms.api.world.entity;
+
+import com.shanebeestudios.nms.api.server.ApiMetrics;
+import com.shanebeestudios.nms.api.server.TickScheduler;
+import net.minecraft.world.entity.Entity;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves {@link FakePlayer FakePlayers} along paths of waypoints every tick
+ * <p>Positions of all moving fake players are interpolated together in a {@link MovementBuffer},
+ * after which each fake player that moved sends its movement to its viewers.
+ * Movements which fit in a relative move packet are sent as such, larger movements are sent as a position sync.</p>
+ * <p>NOTE: This must be used on the main thread.</p>
+ */
+@SuppressWarnings("unused")
+public class MovementEngine {
+
+    private MovementEngine() {
+    }
+
+    private static final MovementBuffer BUFFER = new MovementBuffer(64);
+    // Fake player of each slot in the buffer
+    private static final List<FakePlayer> OWNERS = new ArrayList<>();
+    private static boolean started = false;
+
+    /**
+     * Move a fake player along a path
+     * <p>Replaces the current path of the fake player, if any.</p>
+     *
+     * @param fakePlayer Fake player to move
+     * @param waypoints  Waypoints of path, all in the world of the fake player
+     * @param speed      Blocks to move per tick
+     * @param loop       Whether to start over at the first waypoint after reaching the last
+     */
+    public static void setPath(@NotNull FakePlayer fakePlayer, @NotNull List<Location> waypoints, double speed, boolean loop) {
+        if (waypoints.isEmpty()) {
+            throw new IllegalArgumentException("Path needs at least 1 waypoint");
+        }
+        if (speed <= 0) {
+            throw new IllegalArgumentException("Speed needs to be greater than 0");
+        }
+        World world = fakePlayer.getMovingEntity().level().getWorld();
+        double[] path = new double[waypoints.size() * 3];
+        for (int i = 0; i < waypoints.size(); i++) {
+            Location waypoint = waypoints.get(i);
+            if (waypoint.getWorld() != null && waypoint.getWorld() != world) {
+                throw new IllegalArgumentException("Waypoints need to be in the world of the fake player");
+            }
+            path[i * 3] = waypoint.getX();
+            path[i * 3 + 1] = waypoint.getY();
+            path[i * 3 + 2] = waypoint.getZ();
+        }
+
+        int slot = fakePlayer.movementSlot;
+        if (slot < 0) {
+            Entity entity = fakePlayer.getMovingEntity();
+            slot = BUFFER.add(entity.getX(), entity.getY(), entity.getZ(), entity.getYRot(), entity.getXRot());
+            OWNERS.add(fakePlayer);
+            fakePlayer.movementSlot = slot;
+        }
+        BUFFER.setPath(slot, path, speed, loop);
+        start();
+    }
+
+    /**
+     * Stop moving a fake player
+     *
+     * @param fakePlayer Fake player to stop
+     */
+    public static void stop(@NotNull FakePlayer fakePlayer) {
+        int slot = fakePlayer.movementSlot;
+        if (slot < 0) return;
+        remove(slot);
+    }
+
+    /**
+     * Check if a fake player is moving along a path
+     *
+     * @param fakePlayer Fake player to check
+     * @return True if moving
+     */
+    public static boolean isMoving(@NotNull FakePlayer fakePlayer) {
+        return fakePlayer.movementSlot >= 0;
+    }
+
+    /**
+     * Get the amount of fake players moving along a path
+     *
+     * @return Amount of moving fake players
+     */
+    public static int getMovingCount() {
+        return BUFFER.size();
+    }
+
+    private static void tick() {
+        if (BUFFER.size() == 0) return;
+
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        int moved = 0;
+        try {
+            BUFFER.tick();
+            for (int slot = 0; slot < BUFFER.size(); slot++) {
+                if (BUFFER.getState(slot) == MovementBuffer.IDLE) continue;
+                OWNERS.get(slot).move(BUFFER.getX(slot), BUFFER.getY(slot), BUFFER.getZ(slot), BUFFER.getYaw(slot), BUFFER.getPitch(slot));
+                moved++;
+            }
+            // Backwards, removing moves the last slot into the removed one
+            for (int slot = BUFFER.size() - 1; slot >= 0; slot--) {
+                if (BUFFER.getState(slot) == MovementBuffer.FINISHED) remove(slot);
+            }
+        } finally {
+            ApiMetrics.record("MovementEngine#tick", sample, 0, moved);
+        }
+    }
+
+    private static void remove(int slot) {
+        OWNERS.get(slot).movementSlot = -1;
+        int moved = BUFFER.remove(slot);
+        FakePlayer last = OWNERS.removeLast();
+        if (moved >= 0) {
+            OWNERS.set(slot, last);
+            last.movementSlot = slot;
+        }
+    }
+
+    private static void start() {
+        if (started) return;
+        started = true;
+        TickScheduler.schedule(() -> {
+            tick();
+            return false;
+        });
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.shanebeestudios.nms.api.world.entity;
+
+import com.shanebeestudios.nms.api.server.ApiMetrics;
+import com.shanebeestudios.nms.api.server.TickScheduler;
+import net.minecraft.network.protocol.BundlerInfo;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientGamePacketListener;
+import net.minecraft.network.protocol.game.ClientboundBundlePacket;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects packets during a tick and sends them as one bundle per player at the end of the tick
+ * <p>Instead of writing each packet to each connection separately, all packets queued for a player
+ * are wrapped in a {@link ClientboundBundlePacket}, which the client also handles within a single frame.
+ * Bundles are split up if more than {@link BundlerInfo#BUNDLE_SIZE_LIMIT} packets are queued for a player.</p>
+ * <p>Packets queued for a player are sent in the order they were queued.</p>
+ * <p>NOTE: This must be used on the main thread.</p>
+ */
+@SuppressWarnings("unused")
+public class PacketBatcher {
+
+    private PacketBatcher() {
+    }
+
+    private static final Map<ServerPlayer, List<Packet<? super ClientGamePacketListener>>> QUEUED = new IdentityHashMap<>();
+    private static boolean started = false;
+
+    /**
+     * Queue a packet to be sent to a player at the end of the tick
+     *
+     * @param player Player to send packet to
+     * @param packet Packet to send
+     */
+    public static void queue(@NotNull ServerPlayer player, @NotNull Packet<? super ClientGamePacketListener> packet) {
+        start();
+        QUEUED.computeIfAbsent(player, k -> new ArrayList<>()).add(packet);
+    }
+
+    /**
+     * Queue packets to be sent to a player at the end of the tick
+     *
+     * @param player  Player to send packets to
+     * @param packets Packets to send
+     */
+    public static void queue(@NotNull ServerPlayer player, @NotNull List<? extends Packet<? super ClientGamePacketListener>> packets) {
+        if (packets.isEmpty()) return;
+        start();
+        QUEUED.computeIfAbsent(player, k -> new ArrayList<>()).addAll(packets);
+    }
+
+    /**
+     * Queue a packet to be sent to all online players at the end of the tick
+     *
+     * @param packet Packet to send
+     */
+    public static void queueAll(@NotNull Packet<? super ClientGamePacketListener> packet) {
+        for (ServerPlayer player : MinecraftServer.getServer().getPlayerList().players) {
+            queue(player, packet);
+        }
+    }
+
+    /**
+     * Queue packets to be sent to all online players at the end of the tick
+     *
+     * @param packets Packets to send
+     */
+    public static void queueAll(@NotNull List<? extends Packet<? super ClientGamePacketListener>> packets) {
+        for (ServerPlayer player : MinecraftServer.getServer().getPlayerList().players) {
+            queue(player, packets);
+        }
+    }
+
+    /**
+     * Send packets to a player right away, bundled together
+     *
+     * @param player  Player to send packets to
+     * @param packets Packets to send
+     */
+    public static void send(@NotNull ServerPlayer player, @NotNull List<? extends Packet<? super ClientGamePacketListener>> packets) {
+        int size = packets.size();
+        if (size == 0) return;
+        if (size == 1) {
+            player.connection.send(packets.getFirst());
+            return;
+        }
+        for (int start = 0; start < size; start += BundlerInfo.BUNDLE_SIZE_LIMIT) {
+            List<? extends Packet<? super ClientGamePacketListener>> part = packets.subList(start, Math.min(size, start + BundlerInfo.BUNDLE_SIZE_LIMIT));
+            // Copy, the bundle holds on to its packets until written
+            player.connection.send(new ClientboundBundlePacket(new ArrayList<>(part)));
+        }
+    }
+
+    /**
+     * Send all queued packets right away
+     * <p>This is done automatically at the end of each tick.</p>
+     */
+    public static void flush() {
+        if (QUEUED.isEmpty()) return;
+
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        long packets = 0;
+        int players = 0;
+        try {
+            for (Map.Entry<ServerPlayer, List<Packet<? super ClientGamePacketListener>>> entry : QUEUED.entrySet()) {
+                List<Packet<? super ClientGamePacketListener>> queued = entry.getValue();
+                if (queued.isEmpty()) continue;
+
+                ServerPlayer player = entry.getKey();
+                if (!player.hasDisconnected()) {
+                    send(player, queued);
+                    packets += queued.size();
+                    players++;
+                }
+                queued.clear();
+            }
+            // Lists are kept between ticks, drop those of players who left
+            QUEUED.keySet().removeIf(ServerPlayer::hasDisconnected);
+        } finally {
+            ApiMetrics.record("PacketBatcher#flush", sample, packets, players);
+        }
+    }
+
+    private static void start() {
+        if (started) return;
+        started = true;
+        // After all tasks, so packets queued by tasks (such as the MovementEngine) are sent the same tick
+        TickScheduler.addPostTask(PacketBatcher::flush);
+    }
+
+}
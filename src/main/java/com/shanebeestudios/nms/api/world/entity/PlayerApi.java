@@ -1,7 +1,14 @@
 package com.shanebeestudios.nms.api.world.entity;
 
 import com.mojang.authlib.GameProfile;
+import com.shanebeestudios.nms.api.server.ApiMetrics;
 import com.shanebeestudios.nms.api.util.McUtils;
+import com.shanebeestudios.nms.api.world.entity.skin.FileSkinProvider;
+import com.shanebeestudios.nms.api.world.entity.skin.MojangSkinProvider;
+import com.shanebeestudios.nms.api.world.entity.skin.Skin;
+import com.shanebeestudios.nms.api.world.entity.skin.SkinCache;
+import com.shanebeestudios.nms.api.world.entity.skin.SkinProvider;
+import net.minecraft.core.UUIDUtil;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.game.ClientboundRemoveEntitiesPacket;
 import net.minecraft.server.MinecraftServer;
@@ -17,13 +24,21 @@ import org.bukkit.World;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
+import org.bukkit.util.BoundingBox;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Api methods pertaining to a {@link org.bukkit.entity.Player}
@@ -35,7 +50,13 @@ public class PlayerApi {
     }
 
     private static final MinecraftServer MINECRAFT_SERVER = MinecraftServer.getServer();
-    static final Map<String, FakePlayer> FAKE_PLAYERS = new HashMap<>();
+    static final FakePlayerRegistry FAKE_PLAYERS = new FakePlayerRegistry();
+    private static volatile SkinProvider skinProvider;
+    // Profile lookups are blocking I/O, so each gets its own cheap virtual thread
+    private static final ExecutorService PROFILE_EXECUTOR = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("NMS-API-Profile-", 0).factory());
+    // Lower case names to UUIDs of looked up profiles, so spawning a fake player never looks up a name twice
+    private static final Map<String, UUID> PROFILE_IDS = new ConcurrentHashMap<>();
 
     /**
      * Spawn a {@link FakePlayer}
@@ -71,6 +92,8 @@ public class PlayerApi {
      * <p>NOTE: The attached entity will spawn, and the player will take over its AI,
      * This may cause some client lag depending on the chosen entity.</p>
      * <p>If not using update, use {@link FakePlayer#update()} or {@link FakePlayer#update(Player)} to update to players.</p>
+     * <p>If the UUID of the name isn't cached, the fake player gets an offline mode UUID,
+     * and the skin is applied once the real UUID was looked up off the main thread.</p>
      *
      * @param name       Name of fake player
      * @param loc        Location of fake player
@@ -79,38 +102,52 @@ public class PlayerApi {
      * @return FakePlayer instance
      */
     public static FakePlayer spawnFakePlayer(@NotNull String name, @NotNull Location loc, @Nullable EntityType attachType, boolean update) {
-        // create player entity
-        World world = loc.getWorld() != null ? loc.getWorld() : Bukkit.getWorlds().get(0);
-        ServerLevel level = McUtils.getServerLevel(world);
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            // create player entity
+            World world = loc.getWorld() != null ? loc.getWorld() : Bukkit.getWorlds().get(0);
+            ServerLevel level = McUtils.getServerLevel(world);
 
-        OfflinePlayer op = Bukkit.getOfflinePlayer(name);
-        GameProfile gameProfile = new GameProfile(op.getUniqueId(), name);
-        McUtils.setSkin(gameProfile);
-        ServerPlayer serverPlayer = new ServerPlayer(MINECRAFT_SERVER, level, gameProfile, ClientInformation.createDefault());
-        serverPlayer.setPos(loc.getX(), loc.getY(), loc.getZ());
+            // Looking up an unknown name may block on I/O, so don't do it on the main thread
+            UUID profileId = getProfileIdIfCached(name);
+            GameProfile gameProfile = new GameProfile(profileId != null ? profileId : UUIDUtil.createOfflinePlayerUUID(name), name);
+            // Don't wait for the skin on the main thread, apply it once fetched if it isn't cached
+            SkinProvider provider = getSkinProvider();
+            Skin cachedSkin = profileId != null ? provider.getSkinIfCached(profileId, name) : null;
+            if (cachedSkin != null) cachedSkin.apply(gameProfile);
+
+            // Attempt attachment
+            Entity attachedEntity = null;
+            if (attachType != null) {
+                Class<? extends org.bukkit.entity.Entity> entityClass = attachType.getEntityClass();
+                assert entityClass != null;
+                if (!LivingEntity.class.isAssignableFrom(entityClass)) {
+                    throw new IllegalArgumentException("Cannot use a non-living entity");
+                }
+                // Spawn entity used for attachment
+                org.bukkit.entity.Entity spawn = loc.getWorld().spawn(loc, entityClass);
+                attachedEntity = McUtils.getNMSEntity(spawn);
 
-        // Attempt attachment
-        Entity attachedEntity = null;
-        if (attachType != null) {
-            Class<? extends org.bukkit.entity.Entity> entityClass = attachType.getEntityClass();
-            assert entityClass != null;
-            if (!LivingEntity.class.isAssignableFrom(entityClass)) {
-                throw new IllegalArgumentException("Cannot use a non-living entity");
+                // Visual remove that entity from the client
+                ClientboundRemoveEntitiesPacket removePacket = new ClientboundRemoveEntitiesPacket(attachedEntity.getId());
+                MinecraftServer.getServer().getPlayerList().players.forEach(player -> player.connection.send(removePacket));
             }
-            // Spawn entity used for attachment
-            org.bukkit.entity.Entity spawn = loc.getWorld().spawn(loc, entityClass);
-            attachedEntity = McUtils.getNMSEntity(spawn);
 
-            // Visual remove that entity from the client
-            ClientboundRemoveEntitiesPacket removePacket = new ClientboundRemoveEntitiesPacket(attachedEntity.getId());
-            MinecraftServer.getServer().getPlayerList().players.forEach(player -> player.connection.send(removePacket));
+            // Create fake player and update to all clients
+            FakePlayer fakePlayer = createFakePlayer(level, gameProfile, loc, attachedEntity);
+            if (update) fakePlayer.update();
+            if (cachedSkin == null) {
+                CompletableFuture<UUID> skinId = profileId != null ? CompletableFuture.completedFuture(profileId) : getProfileIdAsync(name);
+                skinId.thenCompose(id -> provider.getSkin(id, name)).thenAcceptAsync(skin -> {
+                    if (skin == null) return;
+                    skin.apply(gameProfile);
+                    fakePlayer.refresh();
+                }, MINECRAFT_SERVER);
+            }
+            return fakePlayer;
+        } finally {
+            ApiMetrics.record("PlayerApi#spawnFakePlayer", sample);
         }
-
-        // Create fake player and update to all clients
-        FakePlayer fakePlayer = new FakePlayer(serverPlayer, attachedEntity);
-        FAKE_PLAYERS.put(name, fakePlayer);
-        if (update) fakePlayer.update();
-        return fakePlayer;
     }
 
     /**
@@ -147,6 +184,8 @@ public class PlayerApi {
      * <p>NOTE: The attached entity will spawn, and the player will take over its AI,
      * This may cause some client lag depending on the chosen entity.</p>
      * <p>If not using update, use {@link FakePlayer#update()} or {@link FakePlayer#update(Player)} to update to players.</p>
+     * <p>Can be called from any thread, the attached entity and fake player are created on the main thread
+     * once the profile was fetched.</p>
      *
      * @param name       Name of fake player
      * @param loc        Location of fake player
@@ -155,50 +194,130 @@ public class PlayerApi {
      * @return FakePlayer instance
      */
     public static CompletableFuture<FakePlayer> spawnFakePlayerAsync(@NotNull String name, @NotNull Location loc, @Nullable EntityType attachType, boolean update) {
-        // create fake player
-        World world = loc.getWorld() != null ? loc.getWorld() : Bukkit.getWorlds().get(0);
-        ServerLevel level = McUtils.getServerLevel(world);
-
-        // Spawn attachment if necessary
-        Entity attachedEntity;
-        if (attachType != null) {
-            // Spawn entity used for attachment
-            Class<? extends org.bukkit.entity.Entity> entityClass = attachType.getEntityClass();
-            assert entityClass != null;
-            if (!LivingEntity.class.isAssignableFrom(entityClass)) {
-                throw new IllegalArgumentException("Cannot use a non-living entity");
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            // create fake player
+            World world = loc.getWorld() != null ? loc.getWorld() : Bukkit.getWorlds().get(0);
+            ServerLevel level = McUtils.getServerLevel(world);
+
+            Class<? extends org.bukkit.entity.Entity> entityClass = attachType != null ? attachType.getEntityClass() : null;
+            if (attachType != null) {
+                assert entityClass != null;
+                if (!LivingEntity.class.isAssignableFrom(entityClass)) {
+                    throw new IllegalArgumentException("Cannot use a non-living entity");
+                }
             }
 
-            org.bukkit.entity.Entity spawnedEntity = loc.getWorld().spawn(loc, entityClass);
-            attachedEntity = McUtils.getNMSEntity(spawnedEntity);
+            // Create Skin/GameProfile off the main thread, then spawn the attachment and create FakePlayer back on the main thread,
+            // so players never see the attachment on its own, and nothing is spawned if the profile can't be created
+            Location location = loc.clone();
+            return createProfileAsync(name).thenApplyAsync(gameProfile -> {
+                Entity attachedEntity = null;
+                if (entityClass != null) {
+                    org.bukkit.entity.Entity spawnedEntity = world.spawn(location, entityClass);
+                    attachedEntity = McUtils.getNMSEntity(spawnedEntity);
+
+                    // Visually remove that entity from the client
+                    ClientboundRemoveEntitiesPacket removePacket = new ClientboundRemoveEntitiesPacket(attachedEntity.getId());
+                    MinecraftServer.getServer().getPlayerList().players.forEach(player -> player.connection.send(removePacket));
+                }
 
-            // Visually remove that entity from the client
-            ClientboundRemoveEntitiesPacket removePacket = new ClientboundRemoveEntitiesPacket(attachedEntity.getId());
-            MinecraftServer.getServer().getPlayerList().players.forEach(player -> player.connection.send(removePacket));
-        } else {
-            attachedEntity = null;
+                FakePlayer fakePlayer = createFakePlayer(level, gameProfile, location, attachedEntity);
+                if (update) fakePlayer.update();
+                return fakePlayer;
+            }, MINECRAFT_SERVER);
+        } finally {
+            ApiMetrics.record("PlayerApi#spawnFakePlayerAsync", sample);
         }
+    }
 
-        // Create Skin/GameProfile
-        CompletableFuture<FakePlayer> fakePlayerFuture = new CompletableFuture<>();
-        CompletableFuture<GameProfile> skinFuture = CompletableFuture.supplyAsync(() -> {
-            OfflinePlayer op = Bukkit.getOfflinePlayer(name);
-            GameProfile gameProfile = new GameProfile(op.getUniqueId(), name);
-            McUtils.setSkin(gameProfile);
-            return gameProfile;
-        });
-
-        // Finally create FakePlayer and apply skin
-        return skinFuture.thenApply(gameProfile -> {
-            ServerPlayer serverPlayer = new ServerPlayer(MINECRAFT_SERVER, level, gameProfile, ClientInformation.createDefault());
-            serverPlayer.setPos(loc.getX(), loc.getY(), loc.getZ());
-
-            FakePlayer fakePlayer = new FakePlayer(serverPlayer, attachedEntity);
-            FAKE_PLAYERS.put(name, fakePlayer);
-            if (update) fakePlayer.update();
-            fakePlayerFuture.complete(fakePlayer);
-            return fakePlayer;
-        });
+    /**
+     * Spawn many {@link FakePlayer FakePlayers} async
+     * <p>This will cache the fake players as well for later retrieval</p>
+     * <p>Profiles and skins of all players are fetched concurrently off the main thread.
+     * Once all are fetched, the fake players are created together on the main thread,
+     * and sent to their viewers in one bundle per viewer at the end of that tick.</p>
+     * <p>NOTE: This must be called on the main thread.</p>
+     *
+     * @param players Map of names to locations of fake players
+     * @param update  Whether to update the fake players to their viewers
+     * @return Future of spawned fake players, in the iteration order of the map
+     */
+    @NotNull
+    public static CompletableFuture<List<FakePlayer>> spawnFakePlayersAsync(@NotNull Map<String, Location> players, boolean update) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            List<String> names = new ArrayList<>(players.size());
+            List<Location> locations = new ArrayList<>(players.size());
+            List<CompletableFuture<GameProfile>> profiles = new ArrayList<>(players.size());
+            players.forEach((name, loc) -> {
+                names.add(name);
+                locations.add(loc.clone());
+                profiles.add(createProfileAsync(name));
+            });
+
+            return CompletableFuture.allOf(profiles.toArray(CompletableFuture[]::new)).thenApplyAsync(v -> {
+                ApiMetrics.Sample createSample = ApiMetrics.start();
+                List<FakePlayer> fakePlayers = new ArrayList<>(names.size());
+                try {
+                    for (int i = 0; i < names.size(); i++) {
+                        Location loc = locations.get(i);
+                        World world = loc.getWorld() != null ? loc.getWorld() : Bukkit.getWorlds().getFirst();
+                        fakePlayers.add(createFakePlayer(McUtils.getServerLevel(world), profiles.get(i).join(), loc, null));
+                    }
+                    // Updates are queued, so viewers get all fake players in one bundle
+                    if (update) fakePlayers.forEach(FakePlayer::update);
+                    return fakePlayers;
+                } finally {
+                    ApiMetrics.record("PlayerApi#spawnFakePlayersAsync$create", createSample, 0, fakePlayers.size());
+                }
+            }, MINECRAFT_SERVER);
+        } finally {
+            ApiMetrics.record("PlayerApi#spawnFakePlayersAsync", sample);
+        }
+    }
+
+    private static CompletableFuture<GameProfile> createProfileAsync(String name) {
+        // Skins are fetched by the provider
+        return getProfileIdAsync(name).thenApply(uuid -> new GameProfile(uuid, name))
+            .thenCompose(gameProfile -> getSkinProvider().getSkin(gameProfile.getId(), name).thenApply(skin -> {
+                if (skin != null) skin.apply(gameProfile);
+                return gameProfile;
+            }));
+    }
+
+    @Nullable
+    private static UUID getProfileIdIfCached(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        UUID uuid = PROFILE_IDS.get(key);
+        if (uuid != null) return uuid;
+
+        OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayerIfCached(name);
+        if (offlinePlayer == null) return null;
+        uuid = offlinePlayer.getUniqueId();
+        PROFILE_IDS.put(key, uuid);
+        return uuid;
+    }
+
+    private static CompletableFuture<UUID> getProfileIdAsync(String name) {
+        UUID cached = PROFILE_IDS.get(name.toLowerCase(Locale.ROOT));
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        // Offline player lookups may block on I/O
+        return CompletableFuture.supplyAsync(() -> {
+            UUID uuid = Bukkit.getOfflinePlayer(name).getUniqueId();
+            PROFILE_IDS.put(name.toLowerCase(Locale.ROOT), uuid);
+            return uuid;
+        }, PROFILE_EXECUTOR);
+    }
+
+    private static FakePlayer createFakePlayer(ServerLevel level, GameProfile gameProfile, Location loc, @Nullable Entity attachedEntity) {
+        ServerPlayer serverPlayer = new ServerPlayer(MINECRAFT_SERVER, level, gameProfile, ClientInformation.createDefault());
+        serverPlayer.setPos(loc.getX(), loc.getY(), loc.getZ());
+
+        FakePlayer fakePlayer = new FakePlayer(serverPlayer, attachedEntity);
+        FAKE_PLAYERS.add(fakePlayer);
+        return fakePlayer;
     }
 
     /**
@@ -209,19 +328,144 @@ public class PlayerApi {
      */
     @Nullable
     public static FakePlayer getFakePlayer(String name) {
-        if (FAKE_PLAYERS.containsKey(name)) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
             return FAKE_PLAYERS.get(name);
+        } finally {
+            ApiMetrics.record("PlayerApi#getFakePlayer", sample);
+        }
+    }
+
+    /**
+     * Get a previously cached {@link FakePlayer} by UUID
+     *
+     * @param uuid UUID of fake player
+     * @return FakePlayer if cached otherwise null
+     */
+    @Nullable
+    public static FakePlayer getFakePlayer(@NotNull UUID uuid) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return FAKE_PLAYERS.get(uuid);
+        } finally {
+            ApiMetrics.record("PlayerApi#getFakePlayer", sample);
+        }
+    }
+
+    /**
+     * Get a previously cached {@link FakePlayer} by the entity id clients know it by
+     * <p>Useful for resolving the entity of packets sent by clients, such as interactions.</p>
+     *
+     * @param entityId Entity id of fake player
+     * @return FakePlayer if cached otherwise null
+     */
+    @Nullable
+    public static FakePlayer getFakePlayerById(int entityId) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return FAKE_PLAYERS.get(entityId);
+        } finally {
+            ApiMetrics.record("PlayerApi#getFakePlayerById", sample);
         }
-        return null;
     }
 
     /**
      * Get all fake players
+     * <p>The returned list is an immutable snapshot, and won't change when fake players are spawned or removed.</p>
      *
      * @return List of all fake players
      */
+    @NotNull
     public static List<FakePlayer> getFakePlayers() {
-        return (List<FakePlayer>) FAKE_PLAYERS.values();
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return FAKE_PLAYERS.getAll();
+        } finally {
+            ApiMetrics.record("PlayerApi#getFakePlayers", sample);
+        }
+    }
+
+    /**
+     * Get all fake players within a radius of a location
+     * <p>Only fake players in the chunks around the location are checked, not every fake player.</p>
+     * <p>NOTE: This must be called on the main thread.</p>
+     *
+     * @param location Center of radius
+     * @param radius   Radius in blocks
+     * @return List of fake players within radius, in no particular order
+     */
+    @NotNull
+    public static List<FakePlayer> getFakePlayersNear(@NotNull Location location, double radius) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            World world = location.getWorld() != null ? location.getWorld() : Bukkit.getWorlds().getFirst();
+            return FakePlayerSpatialIndex.getNear(McUtils.getServerLevel(world), location.getX(), location.getY(), location.getZ(), radius);
+        } finally {
+            ApiMetrics.record("PlayerApi#getFakePlayersNear", sample);
+        }
+    }
+
+    /**
+     * Get all fake players within a bounding box
+     * <p>Only fake players in the chunks the box overlaps are checked, not every fake player.</p>
+     * <p>NOTE: This must be called on the main thread.</p>
+     *
+     * @param world       World to get fake players from
+     * @param boundingBox Box to get fake players within
+     * @return List of fake players within box, in no particular order
+     */
+    @NotNull
+    public static List<FakePlayer> getFakePlayersWithin(@NotNull World world, @NotNull BoundingBox boundingBox) {
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return FakePlayerSpatialIndex.getWithin(McUtils.getServerLevel(world), boundingBox.getMinX(), boundingBox.getMinY(), boundingBox.getMinZ(),
+                boundingBox.getMaxX(), boundingBox.getMaxY(), boundingBox.getMaxZ());
+        } finally {
+            ApiMetrics.record("PlayerApi#getFakePlayersWithin", sample);
+        }
+    }
+
+    /**
+     * Get the registry of all fake players
+     * <p>Lookups on the registry may be done from any thread.</p>
+     *
+     * @return Registry of fake players
+     */
+    @NotNull
+    public static FakePlayerRegistry getFakePlayerRegistry() {
+        return FAKE_PLAYERS;
+    }
+
+    /**
+     * Get the provider of skins for fake players
+     * <p>Defaults to a {@link MojangSkinProvider} with a cache persisted in the plugins folder.</p>
+     *
+     * @return Provider of skins
+     */
+    @NotNull
+    public static SkinProvider getSkinProvider() {
+        SkinProvider provider = skinProvider;
+        if (provider == null) {
+            synchronized (PlayerApi.class) {
+                provider = skinProvider;
+                if (provider == null) {
+                    Path cacheFile = Bukkit.getPluginsFolder().toPath().resolve("NMS-API").resolve("skin-cache.json");
+                    provider = new MojangSkinProvider(new SkinCache(cacheFile, 1000, Duration.ofDays(7)));
+                    skinProvider = provider;
+                }
+            }
+        }
+        return provider;
+    }
+
+    /**
+     * Set the provider of skins for fake players
+     * <p>Such as a {@link FileSkinProvider} for offline servers.</p>
+     *
+     * @param provider Provider of skins
+     */
+    public static void setSkinProvider(@NotNull SkinProvider provider) {
+        skinProvider = provider;
     }
 
     /**
@@ -232,8 +476,13 @@ public class PlayerApi {
      * @return Connection from Player
      */
     public static @NotNull ServerGamePacketListenerImpl getPlayerConnection(@NotNull Player player) {
-        ServerPlayer serverPlayer = McUtils.getServerPlayer(player);
-        return serverPlayer.connection;
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            ServerPlayer serverPlayer = McUtils.getServerPlayer(player);
+            return serverPlayer.connection;
+        } finally {
+            ApiMetrics.record("PlayerApi#getPlayerConnection", sample);
+        }
     }
 
     /**
@@ -243,8 +492,12 @@ public class PlayerApi {
      * @param packet Packet to send
      */
     public static void sendPacket(@NotNull Player player, @NotNull Packet<?> packet) {
-        ServerGamePacketListenerImpl playerConnection = getPlayerConnection(player);
-        playerConnection.send(packet);
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            McUtils.getServerPlayer(player).connection.send(packet);
+        } finally {
+            ApiMetrics.record("PlayerApi#sendPacket", sample);
+        }
     }
 
 }
@@ -0,0 +1,96 @@
+package com.shanebeestudios.nms.api.world.entity.skin;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Provides skins from JSON files in a directory, without any network access
+ * <p>Useful for offline servers and tests. For a player, the files {@code <uuid>.json}
+ * and {@code <name>.json} (lowercase) are checked in that order.
+ * Each file holds an object with a {@code value} and an optional {@code signature},
+ * the same as the textures property of a Mojang profile.</p>
+ * <p>Files are small and read on the calling thread.</p>
+ */
+@SuppressWarnings("unused")
+public class FileSkinProvider implements SkinProvider {
+
+    private static final Gson GSON = new Gson();
+
+    private final Path directory;
+
+    /**
+     * Create a provider
+     *
+     * @param directory Directory of skin files
+     */
+    public FileSkinProvider(@NotNull Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Get the directory of skin files
+     *
+     * @return Directory of skin files
+     */
+    @NotNull
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    @Override
+    public @NotNull CompletableFuture<@Nullable Skin> getSkin(@NotNull UUID uuid, @NotNull String name) {
+        try {
+            return CompletableFuture.completedFuture(getSkinIfCached(uuid, name));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public @Nullable Skin getSkinIfCached(@NotNull UUID uuid, @NotNull String name) {
+        Skin skin = read(this.directory.resolve(uuid + ".json"));
+        if (skin == null) skin = read(this.directory.resolve(name.toLowerCase(Locale.ROOT) + ".json"));
+        return skin;
+    }
+
+    /**
+     * Save a skin to the file of a player
+     *
+     * @param uuid UUID of player
+     * @param skin Skin to save
+     * @throws IOException If the file could not be written
+     */
+    public void save(@NotNull UUID uuid, @NotNull Skin skin) throws IOException {
+        JsonObject object = new JsonObject();
+        object.addProperty("value", skin.getValue());
+        if (skin.getSignature() != null) object.addProperty("signature", skin.getSignature());
+        Files.createDirectories(this.directory);
+        Files.writeString(this.directory.resolve(uuid + ".json"), GSON.toJson(object), StandardCharsets.UTF_8);
+    }
+
+    @Nullable
+    private static Skin read(Path file) {
+        if (!Files.isRegularFile(file)) return null;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonObject object = GSON.fromJson(reader, JsonObject.class);
+            if (object == null || !object.has("value")) return null;
+            JsonElement signature = object.get("signature");
+            return new Skin(object.get("value").getAsString(), signature != null ? signature.getAsString() : null);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read skin file " + file, e);
+        }
+    }
+
+}
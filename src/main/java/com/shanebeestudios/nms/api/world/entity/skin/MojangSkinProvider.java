@@ -0,0 +1,144 @@
+package com.shanebeestudios.nms.api.world.entity.skin;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provides skins from the Mojang session server
+ * <p>Fetched skins are kept in a {@link SkinCache}, so spawning a fake player with a cached skin needs no request.
+ * Requests are sent asynchronously, and concurrent requests for the same player are merged into one.</p>
+ * <p>If a request fails, a cached skin which is too old is used instead, if there is one.
+ * Players without a skin (ex: offline mode UUIDs) are remembered for a few minutes, so they aren't requested again every spawn.</p>
+ */
+@SuppressWarnings("unused")
+public class MojangSkinProvider implements SkinProvider {
+
+    private static final String SESSION_URL = "https://sessionserver.mojang.com/session/minecraft/profile/%s?unsigned=false";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final long MISSING_TTL_NANOS = Duration.ofMinutes(5).toNanos();
+    private static final int MISSING_PRUNE_SIZE = 1000;
+    private static final Gson GSON = new Gson();
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+        .connectTimeout(TIMEOUT)
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .build();
+
+    private final SkinCache cache;
+    private final Map<UUID, CompletableFuture<Skin>> inFlight = new ConcurrentHashMap<>();
+    // Players without a skin, to the nano time they may be requested again
+    private final Map<UUID, Long> missing = new ConcurrentHashMap<>();
+
+    /**
+     * Create a provider
+     *
+     * @param cache Cache to keep fetched skins in
+     */
+    public MojangSkinProvider(@NotNull SkinCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Get the cache of this provider
+     *
+     * @return Cache of skins
+     */
+    @NotNull
+    public SkinCache getCache() {
+        return this.cache;
+    }
+
+    @Override
+    public @NotNull CompletableFuture<@Nullable Skin> getSkin(@NotNull UUID uuid, @NotNull String name) {
+        Skin cached = this.cache.get(uuid);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        if (isMissing(uuid)) return CompletableFuture.completedFuture(null);
+
+        CompletableFuture<Skin> existing = this.inFlight.get(uuid);
+        if (existing != null) return existing;
+
+        CompletableFuture<Skin> future = new CompletableFuture<>();
+        existing = this.inFlight.putIfAbsent(uuid, future);
+        if (existing != null) return existing;
+
+        fetch(uuid).whenComplete((skin, throwable) -> {
+            this.inFlight.remove(uuid, future);
+            if (throwable != null) {
+                Skin stale = this.cache.getStale(uuid);
+                if (stale == null) {
+                    Bukkit.getLogger().warning("[NMS-API] Skin cannot be fetched for " + name + ": " + throwable.getMessage());
+                }
+                future.complete(stale);
+                return;
+            }
+            if (skin != null) {
+                this.cache.put(uuid, skin);
+            } else {
+                putMissing(uuid);
+            }
+            future.complete(skin);
+        });
+        return future;
+    }
+
+    @Override
+    public @Nullable Skin getSkinIfCached(@NotNull UUID uuid, @NotNull String name) {
+        return this.cache.get(uuid);
+    }
+
+    private boolean isMissing(UUID uuid) {
+        Long expiry = this.missing.get(uuid);
+        if (expiry == null) return false;
+        if (expiry - System.nanoTime() > 0) return true;
+        this.missing.remove(uuid, expiry);
+        return false;
+    }
+
+    private void putMissing(UUID uuid) {
+        long now = System.nanoTime();
+        // Expired entries are otherwise only dropped when looked up again
+        if (this.missing.size() >= MISSING_PRUNE_SIZE) this.missing.values().removeIf(expiry -> expiry - now <= 0);
+        this.missing.put(uuid, now + MISSING_TTL_NANOS);
+    }
+
+    private CompletableFuture<Skin> fetch(UUID uuid) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(String.format(SESSION_URL, uuid)))
+            .timeout(TIMEOUT)
+            .GET()
+            .build();
+        return CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            // Unknown players (ex: offline mode UUIDs) have no content
+            if (response.statusCode() == 204 || response.statusCode() == 404) return null;
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Unexpected response code " + response.statusCode());
+            }
+            return parse(GSON.fromJson(response.body(), JsonObject.class));
+        });
+    }
+
+    @Nullable
+    private static Skin parse(@Nullable JsonObject profile) {
+        if (profile == null || !profile.has("properties")) return null;
+        for (JsonElement element : profile.getAsJsonArray("properties")) {
+            JsonObject property = element.getAsJsonObject();
+            if (!"textures".equals(property.get("name").getAsString())) continue;
+            JsonElement signature = property.get("signature");
+            return new Skin(property.get("value").getAsString(), signature != null ? signature.getAsString() : null);
+        }
+        return null;
+    }
+
+}
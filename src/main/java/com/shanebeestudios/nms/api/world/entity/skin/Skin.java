@@ -0,0 +1,78 @@
+package com.shanebeestudios.nms.api.world.entity.skin;
+
+import com.mojang.authlib.GameProfile;
+import com.mojang.authlib.properties.Property;
+import com.mojang.authlib.properties.PropertyMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Textures of a player skin, as signed by Mojang
+ */
+@SuppressWarnings("unused")
+public final class Skin {
+
+    private final String value;
+    private final String signature;
+
+    /**
+     * Create a skin
+     *
+     * @param value     Base64 encoded textures
+     * @param signature Signature of textures, null if unsigned
+     */
+    public Skin(@NotNull String value, @Nullable String signature) {
+        this.value = value;
+        this.signature = signature;
+    }
+
+    /**
+     * Get the base64 encoded textures of this skin
+     *
+     * @return Textures of skin
+     */
+    @NotNull
+    public String getValue() {
+        return this.value;
+    }
+
+    /**
+     * Get the signature of the textures of this skin
+     *
+     * @return Signature of skin, null if unsigned
+     */
+    @Nullable
+    public String getSignature() {
+        return this.signature;
+    }
+
+    /**
+     * Apply this skin to a GameProfile, replacing its current textures
+     *
+     * @param gameProfile Profile to apply skin to
+     */
+    public void apply(@NotNull GameProfile gameProfile) {
+        PropertyMap properties = gameProfile.getProperties();
+        properties.removeAll("textures");
+        properties.put("textures", new Property("textures", this.value, this.signature));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Skin skin)) return false;
+        return this.value.equals(skin.value) && Objects.equals(this.signature, skin.signature);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.value, this.signature);
+    }
+
+    @Override
+    public String toString() {
+        return "Skin{signed=" + (this.signature != null) + "}";
+    }
+
+}
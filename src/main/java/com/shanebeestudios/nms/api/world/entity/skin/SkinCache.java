@@ -0,0 +1,185 @@
+package com.shanebeestudios.nms.api.world.entity.skin;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Least recently used cache of skins, persisted to a JSON file
+ * <p>The file is loaded when the cache is created, and saved shortly after skins are added,
+ * so a burst of new skins only causes one write.</p>
+ * <p>This is thread safe.</p>
+ */
+@SuppressWarnings("unused")
+public class SkinCache {
+
+    private static final Gson GSON = new Gson();
+    private static final long SAVE_DELAY_SECONDS = 5;
+
+    private final Path file;
+    private final int maxEntries;
+    private final long maxAgeMillis;
+    private final Map<UUID, Entry> entries;
+    private final AtomicBoolean saveScheduled = new AtomicBoolean(false);
+
+    /**
+     * Create a cache and load it from a file
+     *
+     * @param file       File to persist cache to, null to only keep it in memory
+     * @param maxEntries Max amount of skins to keep, least recently used skins are dropped first
+     * @param maxAge     Max age of skins before they should be fetched again
+     */
+    public SkinCache(@Nullable Path file, int maxEntries, @NotNull Duration maxAge) {
+        this.file = file;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxAgeMillis = maxAge.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > SkinCache.this.maxEntries;
+            }
+        };
+        load();
+    }
+
+    /**
+     * Get a skin from this cache
+     *
+     * @param uuid UUID of player
+     * @return Skin if cached and not too old, otherwise null
+     */
+    @Nullable
+    public synchronized Skin get(@NotNull UUID uuid) {
+        Entry entry = this.entries.get(uuid);
+        if (entry == null || isExpired(entry)) return null;
+        return entry.skin;
+    }
+
+    /**
+     * Get a skin from this cache, even if it is too old
+     *
+     * @param uuid UUID of player
+     * @return Skin if cached, otherwise null
+     */
+    @Nullable
+    public synchronized Skin getStale(@NotNull UUID uuid) {
+        Entry entry = this.entries.get(uuid);
+        return entry != null ? entry.skin : null;
+    }
+
+    /**
+     * Add a skin to this cache
+     *
+     * @param uuid UUID of player
+     * @param skin Skin of player
+     */
+    public void put(@NotNull UUID uuid, @NotNull Skin skin) {
+        synchronized (this) {
+            this.entries.put(uuid, new Entry(skin, System.currentTimeMillis()));
+        }
+        scheduleSave();
+    }
+
+    /**
+     * Get the amount of skins in this cache
+     *
+     * @return Amount of skins
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Clear this cache, including the file
+     */
+    public void clear() {
+        synchronized (this) {
+            this.entries.clear();
+        }
+        scheduleSave();
+    }
+
+    /**
+     * Save this cache to its file right away
+     */
+    public void save() {
+        if (this.file == null) return;
+        JsonArray array = new JsonArray();
+        synchronized (this) {
+            // Oldest first, so loading restores the same order
+            this.entries.forEach((uuid, entry) -> {
+                JsonObject object = new JsonObject();
+                object.addProperty("uuid", uuid.toString());
+                object.addProperty("value", entry.skin.getValue());
+                if (entry.skin.getSignature() != null) object.addProperty("signature", entry.skin.getSignature());
+                object.addProperty("fetched", entry.fetched);
+                array.add(object);
+            });
+        }
+        try {
+            Files.createDirectories(this.file.toAbsolutePath().getParent());
+            Path temp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                GSON.toJson(array, writer);
+            }
+            Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Bukkit.getLogger().log(Level.WARNING, "[NMS-API] Failed to save skin cache to " + this.file, e);
+        }
+    }
+
+    private void load() {
+        if (this.file == null || !Files.isRegularFile(this.file)) return;
+        try (Reader reader = Files.newBufferedReader(this.file, StandardCharsets.UTF_8)) {
+            JsonArray array = GSON.fromJson(reader, JsonArray.class);
+            if (array == null) return;
+            synchronized (this) {
+                for (JsonElement element : array) {
+                    JsonObject object = element.getAsJsonObject();
+                    UUID uuid = UUID.fromString(object.get("uuid").getAsString());
+                    JsonElement signature = object.get("signature");
+                    Skin skin = new Skin(object.get("value").getAsString(), signature != null ? signature.getAsString() : null);
+                    this.entries.put(uuid, new Entry(skin, object.get("fetched").getAsLong()));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Bukkit.getLogger().log(Level.WARNING, "[NMS-API] Failed to load skin cache from " + this.file, e);
+        }
+    }
+
+    private void scheduleSave() {
+        if (this.file == null || !this.saveScheduled.compareAndSet(false, true)) return;
+        CompletableFuture.runAsync(() -> {
+            this.saveScheduled.set(false);
+            save();
+        }, CompletableFuture.delayedExecutor(SAVE_DELAY_SECONDS, TimeUnit.SECONDS));
+    }
+
+    private boolean isExpired(Entry entry) {
+        return System.currentTimeMillis() - entry.fetched > this.maxAgeMillis;
+    }
+
+    private record Entry(Skin skin, long fetched) {
+    }
+
+}
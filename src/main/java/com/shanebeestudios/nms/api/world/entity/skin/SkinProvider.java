@@ -0,0 +1,40 @@
+package com.shanebeestudios.nms.api.world.entity.skin;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Provides skins for fake players
+ * <p>The provider used by the Api can be changed with
+ * {@link com.shanebeestudios.nms.api.world.entity.PlayerApi#setSkinProvider(SkinProvider)}.</p>
+ */
+public interface SkinProvider {
+
+    /**
+     * Get the skin of a player
+     * <p>Can be called from any thread, implementations should not block the calling thread.</p>
+     *
+     * @param uuid UUID of player
+     * @param name Name of player
+     * @return Future of skin, completed with null if the player has no skin
+     */
+    @NotNull
+    CompletableFuture<@Nullable Skin> getSkin(@NotNull UUID uuid, @NotNull String name);
+
+    /**
+     * Get the skin of a player only if it is available right away, such as from a cache
+     * <p>By default this starts getting the skin if it isn't available yet, so it may be available on a later call.</p>
+     *
+     * @param uuid UUID of player
+     * @param name Name of player
+     * @return Skin if available right away, otherwise null
+     */
+    @Nullable
+    default Skin getSkinIfCached(@NotNull UUID uuid, @NotNull String name) {
+        return getSkin(uuid, name).getNow(null);
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Api relating to skins of fake players
+ */
+package com.shanebeestudios.nms.api.world.entity.skin;
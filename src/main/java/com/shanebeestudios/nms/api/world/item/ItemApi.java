@@ -1,9 +1,9 @@
 package com.shanebeestudios.nms.api.world.item;
 
+import com.shanebeestudios.nms.api.server.ApiMetrics;
 import com.shanebeestudios.nms.api.util.McUtils;
 import net.minecraft.core.Registry;
-import net.minecraft.core.registries.Registries;
-import net.minecraft.resources.ResourceLocation;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import org.bukkit.Material;
@@ -18,7 +18,8 @@ import org.jetbrains.annotations.NotNull;
 @SuppressWarnings("unused")
 public class ItemApi {
 
-    private static final Registry<Item> ITEM_REGISTRY = McUtils.getRegistry(Registries.ITEM);
+    // Items are a built-in registry, so this doesn't need a running server
+    private static final Registry<Item> ITEM_REGISTRY = BuiltInRegistries.ITEM;
 
     /**
      * DO NOT USE
@@ -36,7 +37,12 @@ public class ItemApi {
      */
     @NotNull
     public static ItemStack getNMSItemStackCopy(@NotNull org.bukkit.inventory.ItemStack bukkitItemStack) {
-        return CraftItemStack.asNMSCopy(bukkitItemStack);
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return CraftItemStack.asNMSCopy(bukkitItemStack);
+        } finally {
+            ApiMetrics.record("ItemApi#getNMSItemStackCopy", sample);
+        }
     }
 
     /**
@@ -47,10 +53,12 @@ public class ItemApi {
      */
     @NotNull
     public static ItemStack getNMSItemStack(@NotNull org.bukkit.inventory.ItemStack bukkitItemStack) {
-        if (bukkitItemStack instanceof CraftItemStack craftItemStack) {
-            return craftItemStack.handle != null ? craftItemStack.handle : ItemStack.EMPTY;
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return McUtils.getNMSItemStack(bukkitItemStack);
+        } finally {
+            ApiMetrics.record("ItemApi#getNMSItemStack", sample);
         }
-        return getNMSItemStackCopy(bukkitItemStack);
     }
 
     /**
@@ -62,9 +70,14 @@ public class ItemApi {
      */
     @NotNull
     public static NamespacedKey getKey(@NotNull ItemStack itemStack) {
-        ResourceLocation key = ITEM_REGISTRY.getKey(itemStack.getItem());
-        assert key != null;
-        return McUtils.getNamespacedKey(key);
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            NamespacedKey key = McUtils.getItemKey(itemStack.getItem());
+            assert key != null;
+            return key;
+        } finally {
+            ApiMetrics.record("ItemApi#getKey", sample);
+        }
     }
 
     /**
@@ -75,7 +88,12 @@ public class ItemApi {
      */
     @NotNull
     public static Item getItem(@NotNull ItemStack itemStack) {
-        return itemStack.getItem();
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return itemStack.getItem();
+        } finally {
+            ApiMetrics.record("ItemApi#getItem", sample);
+        }
     }
 
     /**
@@ -86,7 +104,12 @@ public class ItemApi {
      */
     @NotNull
     public static Item getItem(@NotNull Material bukkitMaterial) {
-        return CraftMagicNumbers.getItem(bukkitMaterial);
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return CraftMagicNumbers.getItem(bukkitMaterial);
+        } finally {
+            ApiMetrics.record("ItemApi#getItem", sample);
+        }
     }
 
     /**
@@ -97,7 +120,12 @@ public class ItemApi {
      */
     @NotNull
     public static McItemStack getWrappedItemStack(@NotNull org.bukkit.inventory.ItemStack bukkitItemStack) {
-        return McItemStack.wrap(bukkitItemStack);
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return McItemStack.wrap(bukkitItemStack);
+        } finally {
+            ApiMetrics.record("ItemApi#getWrappedItemStack", sample);
+        }
     }
 
     /**
@@ -108,7 +136,12 @@ public class ItemApi {
      */
     @NotNull
     public static McItem getWrappedItem(@NotNull Item item) {
-        return McItem.wrap(item);
+        ApiMetrics.Sample sample = ApiMetrics.start();
+        try {
+            return McItem.wrap(item);
+        } finally {
+            ApiMetrics.record("ItemApi#getWrappedItem", sample);
+        }
     }
 
 }
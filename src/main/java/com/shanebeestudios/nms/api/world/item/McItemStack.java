@@ -46,7 +46,7 @@ public class McItemStack {
      */
     @NotNull
     public static McItemStack wrap(@NotNull org.bukkit.inventory.ItemStack bukkitItemStack) {
-        return wrap(ItemApi.getNMSItemStack(bukkitItemStack));
+        return wrap(McUtils.getNMSItemStack(bukkitItemStack));
     }
 
     /**